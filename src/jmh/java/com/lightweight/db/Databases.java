@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.h2.store.fs.FileUtils;
+
+/**
+ * Databases under benchmark.
+ * @since 0.2
+ */
+final class Databases {
+
+    /**
+     * Ctor.
+     */
+    private Databases() {
+        // Utility class
+    }
+
+    /**
+     * New temporary directory of a trial.
+     * @return Directory
+     * @throws IOException If fails
+     */
+    static Path directory() throws IOException {
+        return Files.createTempDirectory("lightweight-db-bench");
+    }
+
+    /**
+     * Delete a temporary directory of a trial, with its files.
+     * @param directory Directory
+     */
+    static void delete(final Path directory) {
+        FileUtils.deleteRecursive(directory.toString(), false);
+    }
+
+    /**
+     * Storage from its name.
+     * @param name Name: memory or file
+     * @param directory Directory of file databases
+     * @return Storage
+     */
+    static Storage storage(final String name, final Path directory) {
+        final Storage storage;
+        if ("file".equals(name)) {
+            storage = new FileStorage(directory);
+        } else {
+            storage = new InMemoryStorage();
+        }
+        return storage;
+    }
+
+    /**
+     * Storage tuned with a profile.
+     * @param storage Storage
+     * @param profile Profile: default, fast or strict
+     * @return Storage
+     */
+    static Storage profile(final Storage storage, final String profile) {
+        final Storage tuned;
+        if ("fast".equals(profile)) {
+            tuned = new FastStorage(storage);
+        } else if ("strict".equals(profile)) {
+            tuned = new StrictStorage(storage);
+        } else {
+            tuned = storage;
+        }
+        return tuned;
+    }
+
+    /**
+     * Data source of a dialect.
+     * @param dialect Dialect
+     * @param storage Storage
+     * @return Data source
+     */
+    static EmbeddedDataSourceWrap dialect(
+        final String dialect, final Storage storage
+    ) {
+        return Dialect.valueOf(dialect.toUpperCase(Locale.ENGLISH)).source(
+            new RandomDatabaseName().value(), storage
+        );
+    }
+}
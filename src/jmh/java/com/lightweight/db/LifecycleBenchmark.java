@@ -0,0 +1,140 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the lifecycle of an embedded data source.
+ * <p>It measures the construction, the first connection (which initializes
+ * the database) and the next connections.
+ * @since 0.2
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LifecycleBenchmark {
+
+    /**
+     * Storage: memory or file.
+     */
+    @Param({"memory", "file"})
+    public String storage;
+
+    /**
+     * Temporary directory of the trial.
+     */
+    private Path directory;
+
+    /**
+     * Storage of the databases.
+     */
+    private Storage store;
+
+    /**
+     * Initialized data source.
+     */
+    private EmbeddedDataSourceWrap ready;
+
+    /**
+     * Set up.
+     * @throws IOException If fails
+     * @throws SQLException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        this.directory = Databases.directory();
+        this.store = Databases.storage(this.storage, this.directory);
+        this.ready = new EmbeddedH2DataSource(this.store);
+        this.ready.getConnection().close();
+    }
+
+    /**
+     * Tear down.
+     * @throws SQLException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        this.ready.close();
+        Databases.delete(this.directory);
+    }
+
+    /**
+     * Construction of a data source.
+     * @return Data source
+     */
+    @Benchmark
+    public EmbeddedDataSourceWrap construction() {
+        return new EmbeddedH2DataSource(this.store);
+    }
+
+    /**
+     * First connection, initialization included, and close.
+     * @param hole Black hole
+     * @throws SQLException If fails
+     */
+    @Benchmark
+    public void firstConnection(final Blackhole hole) throws SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource(this.store);
+            Connection connection = source.getConnection()
+        ) {
+            hole.consume(connection);
+        }
+    }
+
+    /**
+     * Connection on an initialized data source.
+     * @param hole Black hole
+     * @throws SQLException If fails
+     */
+    @Benchmark
+    public void nextConnection(final Blackhole hole) throws SQLException {
+        try (Connection connection = this.ready.getConnection()) {
+            hole.consume(connection);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of simple queries on each dialect.
+ * @since 0.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    /**
+     * Number of rows selected from.
+     */
+    private static final int ROWS = 1_000;
+
+    /**
+     * Dialect.
+     */
+    @Param(
+        {
+            "H2", "PostgreSQL", "MySQL", "Oracle",
+            "MSSQLServer", "DB2", "Derby", "HSQLDB"
+        }
+    )
+    public String dialect;
+
+    /**
+     * Storage: memory or file.
+     */
+    @Param({"memory", "file"})
+    public String storage;
+
+    /**
+     * Temporary directory of the trial.
+     */
+    private Path directory;
+
+    /**
+     * Data source.
+     */
+    private EmbeddedDataSourceWrap source;
+
+    /**
+     * Connection.
+     */
+    private Connection connection;
+
+    /**
+     * Insert statement.
+     */
+    private PreparedStatement insert;
+
+    /**
+     * Select statement.
+     */
+    private PreparedStatement select;
+
+    /**
+     * Next id to insert.
+     */
+    private int next;
+
+    /**
+     * Set up.
+     * @throws IOException If fails
+     * @throws SQLException If fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        this.directory = Databases.directory();
+        this.source = Databases.dialect(
+            this.dialect, Databases.storage(this.storage, this.directory)
+        );
+        this.connection = this.source.getConnection();
+        try (Statement stmt = this.connection.createStatement()) {
+            stmt.execute(
+                "CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50))"
+            );
+        }
+        this.insert = this.connection.prepareStatement(
+            "INSERT INTO item (id, name) VALUES (?, ?)"
+        );
+        this.select = this.connection.prepareStatement(
+            "SELECT name FROM item WHERE id = ?"
+        );
+        while (this.next < QueryBenchmark.ROWS) {
+            this.insert();
+        }
+    }
+
+    /**
+     * Tear down.
+     * @throws SQLException If fails
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        this.connection.close();
+        this.source.close();
+        Databases.delete(this.directory);
+    }
+
+    /**
+     * Insert a row.
+     * @return Number of inserted rows
+     * @throws SQLException If fails
+     */
+    @Benchmark
+    public int insert() throws SQLException {
+        this.insert.setInt(1, this.next);
+        this.insert.setString(2, String.format("item %d", this.next));
+        this.next += 1;
+        return this.insert.executeUpdate();
+    }
+
+    /**
+     * Select a row by its primary key.
+     * @return Name
+     * @throws SQLException If fails
+     */
+    @Benchmark
+    public String select() throws SQLException {
+        this.select.setInt(
+            1, ThreadLocalRandom.current().nextInt(QueryBenchmark.ROWS)
+        );
+        try (ResultSet rset = this.select.executeQuery()) {
+            rset.next();
+            return rset.getString(1);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Asynchronous DataSource.
+ * <p>Connections are acquired and statements executed on its own bounded
+ * set of threads, so that the calling thread (an event loop, for example)
+ * is never blocked by the creation or the I/O of an embedded database.
+ * <pre>{@code
+ * final AsyncDataSource source = new AsyncDataSource(
+ *     new EmbeddedPostgreSQLDataSource()
+ * );
+ * source.initialize();
+ * // ... other setup, while the database is created
+ * source.apply(
+ *     connection -> connection.createStatement().executeUpdate("...")
+ * ).thenAccept(...);
+ * }</pre>
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class AsyncDataSource extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Number of data sources, to name their threads.
+     */
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    /**
+     * Origin.
+     */
+    private final DataSource origin;
+
+    /**
+     * Threads.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Ctor.
+     * <p>It uses one thread per available processor.
+     * @param origin Origin
+     */
+    public AsyncDataSource(final DataSource origin) {
+        this(origin, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param threads Number of threads
+     */
+    public AsyncDataSource(final DataSource origin, final int threads) {
+        super(origin);
+        this.origin = origin;
+        final String name = String.format(
+            "async-db-%d", AsyncDataSource.COUNT.incrementAndGet()
+        );
+        this.threads = Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Initialize the database in background.
+     * <p>An embedded database is created on its first connection.
+     * @return Completion of the initialization
+     */
+    public CompletableFuture<Void> initialize() {
+        return this.apply(connection -> null);
+    }
+
+    /**
+     * Acquire a connection.
+     * <p>The caller must close the connection.
+     * @return Connection
+     */
+    public CompletableFuture<Connection> connection() {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    return this.origin.getConnection();
+                } catch (final SQLException ex) {
+                    throw new CompletionException(ex);
+                }
+            },
+            this.threads
+        );
+    }
+
+    /**
+     * Apply a function on a connection.
+     * <p>The connection is closed once the function is applied.
+     * @param function Function
+     * @param <T> Type of the result
+     * @return Result
+     */
+    public <T> CompletableFuture<T> apply(final SqlFunction<T> function) {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                try (Connection connection = this.origin.getConnection()) {
+                    return function.apply(connection);
+                } catch (final SQLException ex) {
+                    throw new CompletionException(ex);
+                }
+            },
+            this.threads
+        );
+    }
+
+    @Override
+    public void close() {
+        this.threads.shutdown();
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * DataSource caching prepared statements.
+ * <p>Each connection keeps the statements it prepared, once closed, in a
+ * bounded cache where the least recently used is evicted first. Preparing
+ * the same SQL again hands the cached statement out instead of parsing
+ * and planning the SQL again. A statement is taken out of the cache while
+ * it's used, so it's never shared. When given back, its parameters, batch
+ * and result set are cleared; a statement whose settings were changed,
+ * its maximum rows or fetch size for instance, is closed instead.
+ * <p>Put it under a pool to share statements between the connections
+ * borrowed from the same physical connection:
+ * {@code new PooledDataSource(new CachingDataSource(source))}.
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class CachingDataSource extends DataSourceWrap {
+
+    /**
+     * Default maximum number of statements cached by a connection.
+     */
+    private static final int DEFAULT_SIZE = 64;
+
+    /**
+     * Methods changing the settings of a statement.
+     */
+    private static final Set<String> SETTINGS = new HashSet<>(
+        Arrays.asList(
+            "setMaxRows", "setLargeMaxRows", "setFetchSize",
+            "setFetchDirection", "setQueryTimeout", "setMaxFieldSize",
+            "setCursorName", "setEscapeProcessing", "setPoolable",
+            "closeOnCompletion"
+        )
+    );
+
+    /**
+     * Maximum number of statements cached by a connection.
+     */
+    private final int size;
+
+    /**
+     * Statements found in a cache.
+     */
+    private final LongAdder hits;
+
+    /**
+     * Statements prepared because they were not cached.
+     */
+    private final LongAdder misses;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public CachingDataSource(final DataSource origin) {
+        this(origin, CachingDataSource.DEFAULT_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param size Maximum number of statements cached by a connection
+     */
+    public CachingDataSource(final DataSource origin, final int size) {
+        super(origin);
+        this.size = size;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.cached(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        return this.cached(super.getConnection(username, password));
+    }
+
+    /**
+     * Number of statements found in a cache.
+     * @return Hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Number of statements prepared because they were not cached.
+     * @return Misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Connection caching its statements.
+     * @param connection Physical connection
+     * @return Connection
+     */
+    private Connection cached(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new Cached(connection)
+        );
+    }
+
+    /**
+     * Connection with its cache of statements.
+     * @since 0.2
+     */
+    private final class Cached implements InvocationHandler {
+
+        /**
+         * Physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Idle statements by SQL, the least recently used first.
+         */
+        private final Map<String, PreparedStatement> idle;
+
+        /**
+         * Ctor.
+         * @param connection Physical connection
+         */
+        Cached(final Connection connection) {
+            this.connection = connection;
+            this.idle = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final Object result;
+            final String name = method.getName();
+            if ("prepareStatement".equals(name) || "prepareCall".equals(name)) {
+                result = this.checkout((Connection) proxy, method, args);
+            } else if ("close".equals(name)) {
+                this.clear();
+                this.connection.close();
+                result = null;
+            } else if ("equals".equals(name)) {
+                result = proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                result = System.identityHashCode(proxy);
+            } else {
+                result = new Invocation(this.connection, method, args).call();
+            }
+            return result;
+        }
+
+        /**
+         * Take a statement out of the cache, else prepare it.
+         * @param proxy Connection handed out
+         * @param method Method preparing the statement
+         * @param args Arguments
+         * @return Statement
+         * @throws Throwable If fails
+         * @checkstyle IllegalThrowsCheck (5 lines)
+         */
+        private Object checkout(
+            final Connection proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final String key = String.format(
+                "%s%s", method.getName(), Arrays.deepToString(args)
+            );
+            PreparedStatement stmt;
+            synchronized (this.idle) {
+                stmt = this.idle.remove(key);
+            }
+            if (stmt == null || stmt.isClosed()) {
+                CachingDataSource.this.misses.increment();
+                stmt = (PreparedStatement) new Invocation(
+                    this.connection, method, args
+                ).call();
+            } else {
+                CachingDataSource.this.hits.increment();
+            }
+            return Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{method.getReturnType()},
+                new Checkout(this, proxy, key, stmt)
+            );
+        }
+
+        /**
+         * Put back a statement in the cache.
+         * <p>A statement whose settings were changed is closed instead, so
+         * that the next borrower doesn't inherit them.
+         * @param key SQL and options of the statement
+         * @param stmt Statement
+         * @param tuned If the settings of the statement were changed
+         * @throws SQLException If fails
+         */
+        private void giveBack(
+            final String key, final PreparedStatement stmt, final boolean tuned
+        ) throws SQLException {
+            if (tuned || this.connection.isClosed()) {
+                stmt.close();
+            } else {
+                final ResultSet current = stmt.getResultSet();
+                if (current != null) {
+                    current.close();
+                }
+                stmt.clearParameters();
+                stmt.clearBatch();
+                final List<PreparedStatement> evicted = new ArrayList<>(1);
+                synchronized (this.idle) {
+                    final PreparedStatement twin = this.idle.put(key, stmt);
+                    if (twin != null) {
+                        evicted.add(twin);
+                    }
+                    final Iterator<PreparedStatement> eldest =
+                        this.idle.values().iterator();
+                    while (this.idle.size() > CachingDataSource.this.size) {
+                        evicted.add(eldest.next());
+                        eldest.remove();
+                    }
+                }
+                for (final PreparedStatement old : evicted) {
+                    old.close();
+                }
+            }
+        }
+
+        /**
+         * Close all idle statements.
+         * @throws SQLException If fails
+         */
+        private void clear() throws SQLException {
+            final List<PreparedStatement> all;
+            synchronized (this.idle) {
+                all = new ArrayList<>(this.idle.values());
+                this.idle.clear();
+            }
+            for (final PreparedStatement stmt : all) {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Statement handed out by a cache.
+     * @since 0.2
+     */
+    private static final class Checkout implements InvocationHandler {
+
+        /**
+         * Cache.
+         */
+        private final Cached cache;
+
+        /**
+         * Connection handed out.
+         */
+        private final Connection connection;
+
+        /**
+         * SQL and options of the statement.
+         */
+        private final String key;
+
+        /**
+         * Statement.
+         */
+        private final PreparedStatement stmt;
+
+        /**
+         * If the statement was given back.
+         */
+        private final AtomicBoolean returned;
+
+        /**
+         * If the settings of the statement were changed.
+         */
+        private volatile boolean tuned;
+
+        /**
+         * Ctor.
+         * @param cache Cache
+         * @param connection Connection handed out
+         * @param key SQL and options of the statement
+         * @param stmt Statement
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Checkout(
+            final Cached cache, final Connection connection,
+            final String key, final PreparedStatement stmt
+        ) {
+            this.cache = cache;
+            this.connection = connection;
+            this.key = key;
+            this.stmt = stmt;
+            this.returned = new AtomicBoolean(false);
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final Object result;
+            final String name = method.getName();
+            if ("close".equals(name)) {
+                if (this.returned.compareAndSet(false, true)) {
+                    this.cache.giveBack(this.key, this.stmt, this.tuned);
+                }
+                result = null;
+            } else if ("isClosed".equals(name)) {
+                result = this.returned.get() || this.stmt.isClosed();
+            } else if ("getConnection".equals(name)) {
+                result = this.connection;
+            } else if ("equals".equals(name)) {
+                result = proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                result = System.identityHashCode(proxy);
+            } else if (this.returned.get()
+                && method.getDeclaringClass() != Object.class) {
+                throw new SQLException("Statement is closed");
+            } else {
+                if (CachingDataSource.SETTINGS.contains(name)) {
+                    this.tuned = true;
+                }
+                result = new Invocation(this.stmt, method, args).call();
+            }
+            return result;
+        }
+    }
+}
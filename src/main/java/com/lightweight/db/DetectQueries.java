@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Repeated and slow statements detected in a JUnit 5 test.
+ * <p>Put it on a test class, or on a test method, to receive the
+ * {@link javax.sql.DataSource} parameters through a {@link QueryDetector}
+ * scoped to the test. The test fails when a statement is executed more
+ * than {@link #repeats()} times or takes more than {@link #millis()}, and
+ * the report of its statements is published otherwise:
+ * <pre>{@code
+ * @EmbeddedDatabase
+ * @DetectQueries(repeats = 3)
+ * final class AccountsTest {
+ *     @Test
+ *     void listsAccounts(final DataSource source) {
+ *         // ...
+ *     }
+ * }
+ * }</pre>
+ * @see EmbeddedDatabaseExtension
+ * @since 0.2
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ExtendWith(EmbeddedDatabaseExtension.class)
+public @interface DetectQueries {
+
+    /**
+     * Maximum number of executions of a statement, once normalized.
+     * @return Number of executions
+     */
+    int repeats() default 10;
+
+    /**
+     * Maximum duration of a statement, in milliseconds.
+     * @return Duration in milliseconds
+     */
+    long millis() default 100L;
+}
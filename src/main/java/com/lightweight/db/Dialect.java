@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.function.BiFunction;
+
+/**
+ * Dialect of an embedded database.
+ * @since 0.2
+ */
+public enum Dialect {
+
+    /**
+     * H2.
+     */
+    H2(EmbeddedH2DataSource::new),
+
+    /**
+     * PostgreSQL.
+     */
+    POSTGRESQL(EmbeddedPostgreSQLDataSource::new),
+
+    /**
+     * MySQL.
+     */
+    MYSQL(EmbeddedMySQLDataSource::new),
+
+    /**
+     * Oracle.
+     */
+    ORACLE(EmbeddedOracleDataSource::new),
+
+    /**
+     * MS SQL Server.
+     */
+    MSSQLSERVER(EmbeddedMSSQLServerDataSource::new),
+
+    /**
+     * DB2.
+     */
+    DB2(EmbeddedDB2DataSource::new),
+
+    /**
+     * Derby.
+     */
+    DERBY(EmbeddedDerbyDataSource::new),
+
+    /**
+     * HSQLDB.
+     */
+    HSQLDB(EmbeddedHSQLDBDataSource::new);
+
+    /**
+     * Factory of data sources.
+     */
+    private final BiFunction<String, Storage, EmbeddedDataSourceWrap> factory;
+
+    /**
+     * Ctor.
+     * @param factory Factory of data sources from a name and a storage
+     */
+    Dialect(final BiFunction<String, Storage, EmbeddedDataSourceWrap> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Data source of a new database.
+     * @param dbname Database name
+     * @param storage Storage
+     * @return Data source
+     */
+    public EmbeddedDataSourceWrap source(final String dbname, final Storage storage) {
+        return this.factory.apply(dbname, storage);
+    }
+
+    /**
+     * Data source of a new in-memory database.
+     * @return Data source
+     */
+    public EmbeddedDataSourceWrap source() {
+        return this.source(new RandomDatabaseName().value(), new InMemoryStorage());
+    }
+}
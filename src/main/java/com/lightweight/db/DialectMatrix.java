@@ -0,0 +1,276 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * JUnit 5 extension that runs a test across dialects.
+ * <p>Each run gets a new database of its dialect, closed at the end of the
+ * run, through {@link DataSource} parameters; a {@link Dialect} parameter
+ * tells which dialect it is. Each run is timed and published as a report
+ * entry, and a combined report of all the dialects is logged once they
+ * have all run.
+ * @see AcrossDialects
+ * @since 0.2
+ */
+public final class DialectMatrix implements TestTemplateInvocationContextProvider {
+
+    /**
+     * Namespace of the extension.
+     */
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(DialectMatrix.class);
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        DialectMatrix.class.getName()
+    );
+
+    @Override
+    public boolean supportsTestTemplate(final ExtensionContext context) {
+        return context.getTestMethod().map(
+            method -> AnnotationSupport.isAnnotated(method, AcrossDialects.class)
+        ).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(
+        final ExtensionContext context
+    ) {
+        final Report report = context.getStore(DialectMatrix.NAMESPACE)
+            .getOrComputeIfAbsent(
+                Report.class, key -> new Report(context.getDisplayName()), Report.class
+            );
+        return Arrays.stream(DialectMatrix.dialects(context)).map(
+            dialect -> new Run(dialect, report)
+        );
+    }
+
+    /**
+     * Dialects a test runs on.
+     * @param context Context of the test
+     * @return Dialects
+     */
+    private static Dialect[] dialects(final ExtensionContext context) {
+        final Dialect[] dialects = context.getRequiredTestMethod()
+            .getAnnotation(AcrossDialects.class).value();
+        final Dialect[] all;
+        if (dialects.length == 0) {
+            all = Dialect.values();
+        } else {
+            all = dialects;
+        }
+        return all;
+    }
+
+    /**
+     * Run of a test on a dialect.
+     * @since 0.2
+     */
+    private static final class Run implements TestTemplateInvocationContext,
+        ParameterResolver, InvocationInterceptor {
+
+        /**
+         * Dialect.
+         */
+        private final Dialect dialect;
+
+        /**
+         * Combined report.
+         */
+        private final Report report;
+
+        /**
+         * Ctor.
+         * @param dialect Dialect
+         * @param report Combined report
+         */
+        Run(final Dialect dialect, final Report report) {
+            this.dialect = dialect;
+            this.report = report;
+        }
+
+        @Override
+        public String getDisplayName(final int index) {
+            return this.dialect.name();
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return Collections.singletonList(this);
+        }
+
+        @Override
+        public boolean supportsParameter(
+            final ParameterContext parameter, final ExtensionContext context
+        ) {
+            final Class<?> type = parameter.getParameter().getType();
+            return type == DataSource.class || type == Dialect.class;
+        }
+
+        @Override
+        public Object resolveParameter(
+            final ParameterContext parameter, final ExtensionContext context
+        ) {
+            final Object resolved;
+            if (parameter.getParameter().getType() == Dialect.class) {
+                resolved = this.dialect;
+            } else {
+                resolved = context.getStore(DialectMatrix.NAMESPACE)
+                    .getOrComputeIfAbsent(
+                        Opened.class,
+                        key -> new Opened(this.dialect.source()),
+                        Opened.class
+                    ).source;
+            }
+            return resolved;
+        }
+
+        @Override
+        public void interceptTestTemplateMethod(
+            final Invocation<Void> invocation,
+            final ReflectiveInvocationContext<Method> method,
+            final ExtensionContext context
+        ) throws Throwable {
+            final long start = System.nanoTime();
+            boolean passed = false;
+            try {
+                invocation.proceed();
+                passed = true;
+            } finally {
+                final long millis = TimeUnit.NANOSECONDS.toMillis(
+                    System.nanoTime() - start
+                );
+                this.report.add(this.dialect, passed, millis);
+                context.publishReportEntry(
+                    this.dialect.name(), String.format("%d ms", millis)
+                );
+            }
+        }
+    }
+
+    /**
+     * Database opened for a run.
+     * @since 0.2
+     */
+    private static final class Opened implements ExtensionContext.Store.CloseableResource {
+
+        /**
+         * Data source.
+         */
+        private final EmbeddedDataSourceWrap source;
+
+        /**
+         * Ctor.
+         * @param source Data source
+         */
+        Opened(final EmbeddedDataSourceWrap source) {
+            this.source = source;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.source.close();
+        }
+    }
+
+    /**
+     * Combined report of the runs of a test.
+     * <p>It's logged when JUnit closes it, once all the runs are done.
+     * @since 0.2
+     */
+    private static final class Report implements ExtensionContext.Store.CloseableResource {
+
+        /**
+         * Test.
+         */
+        private final String test;
+
+        /**
+         * Outcome of each dialect.
+         */
+        private final Map<Dialect, String> outcomes;
+
+        /**
+         * Ctor.
+         * @param test Test
+         */
+        Report(final String test) {
+            this.test = test;
+            this.outcomes = new ConcurrentSkipListMap<>();
+        }
+
+        /**
+         * Add the outcome of a run.
+         * @param dialect Dialect
+         * @param passed If the run passed
+         * @param millis Duration of the run, in milliseconds
+         */
+        void add(final Dialect dialect, final boolean passed, final long millis) {
+            final String status;
+            if (passed) {
+                status = "passed";
+            } else {
+                status = "FAILED";
+            }
+            this.outcomes.put(dialect, String.format("%s in %d ms", status, millis));
+        }
+
+        @Override
+        public void close() {
+            final StringBuilder text = new StringBuilder(
+                String.format("%s across %d dialect(s):", this.test, this.outcomes.size())
+            );
+            for (final Map.Entry<Dialect, String> outcome : this.outcomes.entrySet()) {
+                text.append(System.lineSeparator())
+                    .append(String.format("  %-11s %s", outcome.getKey(), outcome.getValue()));
+            }
+            DialectMatrix.LOGGER.log(Level.INFO, text.toString());
+        }
+    }
+}
@@ -24,32 +24,66 @@
 
 package com.lightweight.db;
 
-import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
-
 /**
  * Embedded DB2 DataSource.
  * @see <a href="http://h2database.com/html/features.html?highlight=DB2%20Compatibility%20Mode&search=DB2%20Compatibility%20Mode#firstFound">H2 - PostgreSQL Compatibility Mode</a>
  * @since 0.1
  * @checkstyle AbbreviationAsWordInNameCheck (100 lines)
  */
-public final class EmbeddedDB2DataSource extends DataSourceWrap {
+public final class EmbeddedDB2DataSource extends EmbeddedDataSourceWrap {
 
     /**
      * Ctor.
+     * <p>The database is kept in memory.
      */
     public EmbeddedDB2DataSource() {
-        this(new RandomDatabaseName().value());
+        this(new InMemoryStorage());
     }
 
     /**
      * Ctor.
+     * <p>The database is kept in memory.
      * @param dbname Database name
      */
     public EmbeddedDB2DataSource(final String dbname) {
+        this(dbname, new InMemoryStorage());
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    public EmbeddedDB2DataSource(final Storage storage) {
+        this(new RandomDatabaseName().value(), storage, false);
+    }
+
+    /**
+     * Ctor.
+     * <p>The database is shared with the other data sources of the same
+     * name and storage in the JVM.
+     * @param dbname Database name
+     * @param storage Storage
+     */
+    public EmbeddedDB2DataSource(final String dbname, final Storage storage) {
+        this(dbname, storage, true);
+    }
+
+    /**
+     * Ctor.
+     * @param dbname Database name
+     * @param storage Storage
+     * @param shared If the database is shared with the other data sources
+     *  of the same name and storage
+     */
+    private EmbeddedDB2DataSource(
+        final String dbname, final Storage storage, final boolean shared
+    ) {
         super(
-            new EmbeddedDataSource(
-                String.format("jdbc:h2:~/%s;MODE=DB2", dbname)
-            )
+            String.format(
+                "%s;MODE=DB2",
+                storage.url(dbname)
+            ),
+            shared
         );
     }
 }
@@ -28,29 +28,101 @@ import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.sql.DataSource;
 import org.h2.jdbcx.JdbcDataSource;
 
 /**
- * Embedded PostgreSQL DataSource.
- * <p>It's based on H2 database features.
- * We use HikariCP for connection pooling.
+ * Embedded H2 DataSource.
+ * <p>It serves the H2 database of a url, as built by a {@link Storage} for
+ * a dialect. The database is initialized, empty, on the first connection
+ * or warm up; an in-memory database is then kept alive by a connection of
+ * its own until the data source is closed. It can be reset, keeping its
+ * schema, and closing it drops the database and deletes its files.
+ * Connections are opened by H2 itself, there is no pool: wrap it in a
+ * {@link PooledDataSource} for that.
  * @since 0.1
  * @checkstyle DesignForExtensionCheck (500 lines)
  */
-public final class EmbeddedDataSource extends DataSourceWrap {
+public final class EmbeddedDataSource extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        EmbeddedDataSource.class.getName()
+    );
+
+    /**
+     * Urls of in-memory databases, in the heap or off the heap, embedded
+     * or on a server.
+     */
+    private static final Pattern IN_MEMORY = Pattern.compile(
+        "jdbc:h2:((tcp|ssl)://[^/]+/)?(mem|nioMemFS|nioMemLZF):.*"
+    );
+
+    /**
+     * Credentials in a url.
+     */
+    private static final Pattern CREDENTIALS = Pattern.compile(
+        ";(USER|PASSWORD)=([^;]*)", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Url.
+     */
+    private final String url;
 
     /**
      * If it has been initialized.
      */
     private volatile boolean initialized;
 
+    /**
+     * If the database lives in memory.
+     */
+    private final boolean memory;
+
+    /**
+     * Connection that keeps an in-memory database alive.
+     */
+    private volatile Connection keepalive;
+
+    /**
+     * Lock of the initialization.
+     * <p>It belongs to this data source only, so that independent
+     * databases are initialized in parallel. It's not a monitor, so that
+     * virtual threads waiting for the initialization don't pin their
+     * carrier thread.
+     */
+    private final Lock lock;
+
+    /**
+     * If it has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Report of the startup.
+     */
+    private volatile Startup startup;
+
     /**
      * Ctor.
      * @param url Url
      */
     public EmbeddedDataSource(final String url) {
         super(makeDataSource(url));
+        this.url = url;
+        this.memory = EmbeddedDataSource.IN_MEMORY.matcher(url).matches();
+        this.lock = new ReentrantLock();
+        this.startup = new Startup(Duration.ZERO, Duration.ZERO, Duration.ZERO);
     }
 
     @Override
@@ -67,38 +139,178 @@ public final class EmbeddedDataSource extends DataSourceWrap {
         return super.getConnection(username, password);
     }
 
+    /**
+     * Memory used by the database.
+     * @return Footprint
+     * @throws SQLException If fails
+     */
+    public Footprint footprint() throws SQLException {
+        this.tryToInitialize();
+        try (Connection connection = super.getConnection()) {
+            return Footprint.of(connection);
+        }
+    }
+
+    /**
+     * Reset the database, keeping its schema.
+     * <p>Only the tables written since the last reset are truncated,
+     * and sequences are restarted.
+     * @throws SQLException If fails
+     */
+    public void reset() throws SQLException {
+        this.tryToInitialize();
+        try (Connection connection = super.getConnection()) {
+            new Truncation(connection).run();
+        }
+    }
+
+    /**
+     * Warm up the database.
+     * <p>It opens and initializes the database ahead of the first
+     * connection, from a static initializer or a background thread for
+     * instance, and reports how long each phase of the startup took.
+     * @return Startup report
+     * @throws SQLException If fails
+     */
+    public Startup warmUp() throws SQLException {
+        this.tryToInitialize();
+        return this.startup;
+    }
+
+    /**
+     * Close the database and delete its files.
+     * <p>An in-memory database is dropped at once.
+     * @throws SQLException If fails
+     */
+    @Override
+    public void close() throws SQLException {
+        this.lock.lock();
+        try {
+            if (!this.closed) {
+                this.closed = true;
+                ShutdownSweep.forget(this);
+                if (this.initialized) {
+                    this.shutdown();
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
     /**
      * Try to initialize.
+     * <p>Closing is checked again under the lock: a source closed while
+     * this thread was waiting for it must not open its database again.
      * @throws SQLException If fails
      */
     private void tryToInitialize() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Data source is closed");
+        }
         if (!this.initialized) {
-            synchronized (EmbeddedDataSource.class) {
+            this.lock.lock();
+            try {
+                if (this.closed) {
+                    throw new SQLException("Data source is closed");
+                }
                 if (!this.initialized) {
-                    try (
-                        Connection connection = super.getConnection()
-                    ) {
-                        try (Statement s = connection.createStatement()) {
-                            s.execute("drop all objects delete files");
-                        }
+                    try {
+                        this.initialize();
                     } finally {
                         this.initialized = true;
                     }
                 }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Initialize the database and time each phase of its startup.
+     * @throws SQLException If fails
+     */
+    private void initialize() throws SQLException {
+        final Duration driver = EngineLoad.once();
+        SharedServer.prepare(this.url);
+        final long start = System.nanoTime();
+        final Connection connection = super.getConnection();
+        final long opened = System.nanoTime();
+        try (Statement s = connection.createStatement()) {
+            s.execute("drop all objects delete files");
+        } catch (final SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+        this.startup = new Startup(
+            driver,
+            Duration.ofNanos(opened - start),
+            Duration.ofNanos(System.nanoTime() - opened)
+        );
+        EmbeddedDataSource.LOGGER.log(Level.FINE, "{0}", this.startup);
+        this.keepAlive(connection);
+        ShutdownSweep.remember(this);
+    }
+
+    /**
+     * Keep alive an in-memory database.
+     * <p>H2 drops an in-memory database as soon as its last connection
+     * is closed, so we hold one open for the data source.
+     * @param connection First connection on the database
+     * @throws SQLException If fails
+     */
+    private void keepAlive(final Connection connection) throws SQLException {
+        if (this.memory) {
+            this.keepalive = connection;
+        } else {
+            connection.close();
+        }
+    }
+
+    /**
+     * Shut down the database and delete its files.
+     * <p>We don't execute {@code SHUTDOWN}: it costs a fixed delay, whereas
+     * H2 closes the database and deletes its files as soon as its last
+     * connection is closed.
+     * @throws SQLException If fails
+     */
+    private void shutdown() throws SQLException {
+        try (
+            Connection connection = super.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            TouchTrigger.drain(connection);
+            s.execute("drop all objects delete files");
+        } finally {
+            if (this.keepalive != null) {
+                this.keepalive.close();
             }
         }
     }
 
     /**
      * Make data source.
+     * <p>The credentials are given by the settings {@code USER} and
+     * {@code PASSWORD} of the url, else it's {@code sa} without password.
      * @param url Url
      * @return Data source
      */
     private static DataSource makeDataSource(final String url) {
         final JdbcDataSource src = new JdbcDataSource();
-        src.setUrl(url);
-        src.setUser("sa");
-        src.setPassword("");
+        String user = "sa";
+        String password = "";
+        final Matcher matcher = EmbeddedDataSource.CREDENTIALS.matcher(url);
+        while (matcher.find()) {
+            if ("USER".equalsIgnoreCase(matcher.group(1))) {
+                user = matcher.group(2);
+            } else {
+                password = matcher.group(2);
+            }
+        }
+        src.setUrl(matcher.replaceAll(""));
+        src.setUser(user);
+        src.setPassword(password);
         return src;
     }
 }
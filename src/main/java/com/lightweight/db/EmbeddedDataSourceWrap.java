@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wrap of an embedded DataSource.
+ * <p>It's the base of the data sources of each dialect.
+ * @since 0.2
+ */
+public abstract class EmbeddedDataSourceWrap extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Origin.
+     */
+    private final EmbeddedDataSource origin;
+
+    /**
+     * Url under which the database is shared, empty if it's not shared.
+     */
+    private final String url;
+
+    /**
+     * If it has been closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Ctor.
+     * <p>The database is shared with the other data sources of the same url
+     * in the JVM.
+     * @param url Url
+     */
+    protected EmbeddedDataSourceWrap(final String url) {
+        this(url, true);
+    }
+
+    /**
+     * Ctor.
+     * <p>A database that is not shared belongs to this data source only,
+     * so nothing else keeps it once this data source is closed.
+     * @param url Url
+     * @param shared If the database is shared with the other data sources
+     *  of the same url in the JVM
+     */
+    protected EmbeddedDataSourceWrap(final String url, final boolean shared) {
+        this(
+            EmbeddedDataSourceWrap.origin(url, shared),
+            EmbeddedDataSourceWrap.key(url, shared)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    protected EmbeddedDataSourceWrap(final EmbeddedDataSource origin) {
+        this(origin, "");
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param url Url under which the database is shared, empty if it's not
+     */
+    private EmbeddedDataSourceWrap(final EmbeddedDataSource origin, final String url) {
+        super(origin);
+        this.origin = origin;
+        this.url = url;
+        this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public final Connection getConnection() throws SQLException {
+        this.ensureOpen();
+        return super.getConnection();
+    }
+
+    @Override
+    public final Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        this.ensureOpen();
+        return super.getConnection(username, password);
+    }
+
+    /**
+     * Warm up the database ahead of the first connection.
+     * @return Startup report
+     * @throws SQLException If fails
+     */
+    public final Startup warmUp() throws SQLException {
+        return this.origin.warmUp();
+    }
+
+    /**
+     * Memory used by the database.
+     * @return Footprint
+     * @throws SQLException If fails
+     */
+    public final Footprint footprint() throws SQLException {
+        return this.origin.footprint();
+    }
+
+    /**
+     * Reset the database, keeping its schema.
+     * <p>Only the tables written since the last reset are truncated.
+     * @throws SQLException If fails
+     */
+    public final void reset() throws SQLException {
+        this.origin.reset();
+    }
+
+    /**
+     * Close the database and delete its files.
+     * <p>A shared database is closed when the last data source sharing it
+     * is closed.
+     * @throws SQLException If fails
+     */
+    @Override
+    public final void close() throws SQLException {
+        if (this.closed.compareAndSet(false, true)) {
+            if (this.url.isEmpty()) {
+                this.origin.close();
+            } else {
+                Registry.release(this.url);
+            }
+        }
+    }
+
+    /**
+     * Database of a url.
+     * @param url Url
+     * @param shared If the database is shared
+     * @return Database
+     */
+    private static EmbeddedDataSource origin(final String url, final boolean shared) {
+        final EmbeddedDataSource origin;
+        if (shared) {
+            origin = Registry.acquire(url);
+        } else {
+            origin = new EmbeddedDataSource(url);
+        }
+        return origin;
+    }
+
+    /**
+     * Url under which a database is shared.
+     * @param url Url
+     * @param shared If the database is shared
+     * @return Url, empty if it's not shared
+     */
+    private static String key(final String url, final boolean shared) {
+        final String key;
+        if (shared) {
+            key = url;
+        } else {
+            key = "";
+        }
+        return key;
+    }
+
+    /**
+     * Ensure this data source is not closed.
+     * <p>A shared database may outlive it.
+     * @throws SQLException If it's closed
+     */
+    private void ensureOpen() throws SQLException {
+        if (this.closed.get()) {
+            throw new SQLException("Data source is closed");
+        }
+    }
+}
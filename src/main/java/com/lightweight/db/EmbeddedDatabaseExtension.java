@@ -0,0 +1,273 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * JUnit 5 extension that resolves {@link DataSource} parameters.
+ * <p>Each worker thread gets its own database per dialect, so tests run in
+ * parallel never share a database. A database is reused by all the tests
+ * of its thread and reset before each of them, keeping its schema, then
+ * it's closed at the end of the test run. The dialect is given by
+ * {@link EmbeddedDatabase} on the parameter or the test class, else it's H2.
+ * <p>With {@link DetectQueries} on the test method or class, the database
+ * is given through a {@link QueryDetector} verified after the test.
+ * @since 0.2
+ */
+public final class EmbeddedDatabaseExtension
+    implements ParameterResolver, AfterEachCallback {
+
+    /**
+     * Namespace of the extension.
+     */
+    private static final ExtensionContext.Namespace NAMESPACE =
+        ExtensionContext.Namespace.create(EmbeddedDatabaseExtension.class);
+
+    /**
+     * Key of the detection of a test in its store.
+     */
+    private static final String DETECTION = "detection";
+
+    @Override
+    public boolean supportsParameter(
+        final ParameterContext parameter, final ExtensionContext context
+    ) {
+        return parameter.getParameter().getType() == DataSource.class;
+    }
+
+    @Override
+    public Object resolveParameter(
+        final ParameterContext parameter, final ExtensionContext context
+    ) {
+        final Dialect dialect = EmbeddedDatabaseExtension.dialect(
+            parameter, context
+        );
+        final String key = String.format(
+            "%s-%d", dialect, Thread.currentThread().getId()
+        );
+        final Shard shard = context.getRoot()
+            .getStore(EmbeddedDatabaseExtension.NAMESPACE)
+            .getOrComputeIfAbsent(
+                key, name -> new Shard(dialect.source()), Shard.class
+            );
+        final ExtensionContext.Store test = context.getStore(
+            EmbeddedDatabaseExtension.NAMESPACE
+        );
+        if (test.get(key) == null) {
+            try {
+                shard.reset();
+            } catch (final SQLException ex) {
+                throw new ParameterResolutionException(
+                    String.format("Database %s could not be reset", key), ex
+                );
+            }
+            test.put(key, true);
+        }
+        final Optional<DetectQueries> detect = EmbeddedDatabaseExtension.detect(
+            context
+        );
+        final DataSource source;
+        if (detect.isPresent()) {
+            source = test.getOrComputeIfAbsent(
+                EmbeddedDatabaseExtension.DETECTION,
+                name -> new Detection(detect.get()), Detection.class
+            ).detector(dialect, shard.source);
+        } else {
+            source = shard.source;
+        }
+        return source;
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        final Detection detection = context.getStore(
+            EmbeddedDatabaseExtension.NAMESPACE
+        ).get(EmbeddedDatabaseExtension.DETECTION, Detection.class);
+        if (detection != null) {
+            detection.verify(context);
+        }
+    }
+
+    /**
+     * Dialect of a parameter.
+     * @param parameter Parameter
+     * @param context Context
+     * @return Dialect
+     */
+    private static Dialect dialect(
+        final ParameterContext parameter, final ExtensionContext context
+    ) {
+        Optional<EmbeddedDatabase> annotation = parameter.findAnnotation(
+            EmbeddedDatabase.class
+        );
+        if (!annotation.isPresent()) {
+            annotation = context.getTestClass().flatMap(
+                type -> AnnotationSupport.findAnnotation(
+                    type, EmbeddedDatabase.class
+                )
+            );
+        }
+        return annotation.map(EmbeddedDatabase::value).orElse(Dialect.H2);
+    }
+
+    /**
+     * Detection of repeated and slow statements of a test.
+     * @param context Context
+     * @return Settings of the detection, if any
+     */
+    private static Optional<DetectQueries> detect(
+        final ExtensionContext context
+    ) {
+        Optional<DetectQueries> annotation = context.getTestMethod().flatMap(
+            method -> AnnotationSupport.findAnnotation(
+                method, DetectQueries.class
+            )
+        );
+        if (!annotation.isPresent()) {
+            annotation = context.getTestClass().flatMap(
+                type -> AnnotationSupport.findAnnotation(
+                    type, DetectQueries.class
+                )
+            );
+        }
+        return annotation;
+    }
+
+    /**
+     * Database of a worker thread.
+     * @since 0.2
+     */
+    private static final class Shard implements ExtensionContext.Store.CloseableResource {
+
+        /**
+         * Data source.
+         */
+        private final EmbeddedDataSourceWrap source;
+
+        /**
+         * Ctor.
+         * @param source Data source
+         */
+        Shard(final EmbeddedDataSourceWrap source) {
+            this.source = source;
+        }
+
+        /**
+         * Reset the database for a new test.
+         * @throws SQLException If fails
+         */
+        void reset() throws SQLException {
+            this.source.reset();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.source.close();
+        }
+    }
+
+    /**
+     * Query detectors of a test.
+     * @since 0.2
+     */
+    private static final class Detection {
+
+        /**
+         * Settings.
+         */
+        private final DetectQueries settings;
+
+        /**
+         * Detectors by dialect.
+         */
+        private final Map<Dialect, QueryDetector> detectors;
+
+        /**
+         * Ctor.
+         * @param settings Settings
+         */
+        Detection(final DetectQueries settings) {
+            this.settings = settings;
+            this.detectors = new LinkedHashMap<>(1);
+        }
+
+        /**
+         * Detector of a database.
+         * @param dialect Dialect
+         * @param source Database
+         * @return Detector
+         */
+        QueryDetector detector(final Dialect dialect, final DataSource source) {
+            return this.detectors.computeIfAbsent(
+                dialect,
+                key -> new QueryDetector(
+                    source, this.settings.repeats(),
+                    Duration.ofMillis(this.settings.millis())
+                )
+            );
+        }
+
+        /**
+         * Publish the report of each database and fail if a threshold
+         * has been exceeded.
+         * @param context Context of the test
+         */
+        void verify(final ExtensionContext context) {
+            final List<String> exceeded = new ArrayList<>(0);
+            for (final Map.Entry<Dialect, QueryDetector> entry
+                : this.detectors.entrySet()) {
+                final QueryReport report = entry.getValue().reset();
+                context.publishReportEntry(
+                    String.format("queries %s", entry.getKey()),
+                    report.toString()
+                );
+                if (report.exceeded()) {
+                    exceeded.add(
+                        String.format("%s: %s", entry.getKey(), report)
+                    );
+                }
+            }
+            if (!exceeded.isEmpty()) {
+                throw new AssertionError(
+                    String.join(System.lineSeparator(), exceeded)
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.h2.Driver;
+
+/**
+ * Load of the H2 engine.
+ * <p>The first database opened in the JVM loads and initializes most of
+ * the classes of H2. A private in-memory database is opened once, and
+ * dropped at once, so that this cost is measured on its own.
+ * @since 0.2
+ */
+final class EngineLoad {
+
+    /**
+     * Url of a private in-memory database.
+     */
+    private static final String PRIVATE = "jdbc:h2:mem:";
+
+    /**
+     * Lock of the load.
+     */
+    private static final Lock LOCK = new ReentrantLock();
+
+    /**
+     * If the engine is loaded.
+     */
+    private static volatile boolean loaded;
+
+    /**
+     * Ctor.
+     */
+    private EngineLoad() {
+        // Utility class
+    }
+
+    /**
+     * Load the engine if not loaded yet.
+     * @return Time to load it, zero if it was already loaded
+     * @throws SQLException If fails
+     */
+    static Duration once() throws SQLException {
+        Duration elapsed = Duration.ZERO;
+        if (!EngineLoad.loaded) {
+            EngineLoad.LOCK.lock();
+            try {
+                if (!EngineLoad.loaded) {
+                    final long start = System.nanoTime();
+                    final Properties props = new Properties();
+                    props.setProperty("user", "sa");
+                    props.setProperty("password", "");
+                    try (
+                        Connection connection = Driver.load().connect(
+                            EngineLoad.PRIVATE, props
+                        );
+                        Statement stmt = connection.createStatement()
+                    ) {
+                        stmt.execute("SELECT 1");
+                    }
+                    elapsed = Duration.ofNanos(System.nanoTime() - start);
+                    EngineLoad.loaded = true;
+                }
+            } finally {
+                EngineLoad.LOCK.unlock();
+            }
+        }
+        return elapsed;
+    }
+}
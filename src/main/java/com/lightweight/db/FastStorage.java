@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+/**
+ * Storage tuned for throughput.
+ * <p>It's a profile for test workloads that don't need durability: commits
+ * are written lazily, the page cache is larger, closing doesn't compact
+ * the file, no lock file is created and tables are not locked.
+ * <pre>{@code
+ * new EmbeddedPostgreSQLDataSource(new FastStorage(new FileStorage()))
+ * }</pre>
+ * @see <a href="http://h2database.com/html/features.html#database_url">H2 - Database URL Overview</a>
+ * @since 0.2
+ */
+public final class FastStorage implements Storage {
+
+    /**
+     * Settings of the profile.
+     */
+    private static final String SETTINGS = String.join(
+        ";",
+        "",
+        "CACHE_SIZE=65536",
+        "WRITE_DELAY=60000",
+        "MAX_COMPACT_TIME=0",
+        "RETENTION_TIME=0",
+        "FILE_LOCK=NO",
+        "LOCK_MODE=0"
+    );
+
+    /**
+     * Origin.
+     */
+    private final Storage origin;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public FastStorage(final Storage origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public String url(final String dbname) {
+        return this.origin.url(dbname).concat(FastStorage.SETTINGS);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * File storage.
+ * <p>The database is written in a directory which is, by default, given by
+ * the system property {@code lightweight.db.dir}, else by the environment
+ * variable {@code LIGHTWEIGHT_DB_DIR}, else the home directory of the user.
+ * Point it to a RAM-backed directory as {@code /dev/shm} to write at memory
+ * speed, or to a directory per Surefire fork so that forks never share
+ * database files.
+ * @since 0.2
+ */
+public final class FileStorage implements Storage {
+
+    /**
+     * System property of the directory.
+     */
+    private static final String PROPERTY = "lightweight.db.dir";
+
+    /**
+     * Environment variable of the directory.
+     */
+    private static final String VARIABLE = "LIGHTWEIGHT_DB_DIR";
+
+    /**
+     * Home directory, as H2 understands it.
+     */
+    private static final String HOME = "~";
+
+    /**
+     * Directory.
+     */
+    private final String directory;
+
+    /**
+     * Ctor.
+     */
+    public FileStorage() {
+        this(
+            System.getProperty(
+                FileStorage.PROPERTY,
+                System.getenv().getOrDefault(
+                    FileStorage.VARIABLE, FileStorage.HOME
+                )
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param directory Directory
+     */
+    public FileStorage(final Path directory) {
+        this(directory.toAbsolutePath().toString());
+    }
+
+    /**
+     * Ctor.
+     * @param directory Directory, {@code ~} for the home directory
+     */
+    public FileStorage(final String directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String url(final String dbname) {
+        final String path;
+        if (this.directory.startsWith(FileStorage.HOME)) {
+            path = String.format("%s/%s", this.directory, dbname);
+        } else {
+            path = Paths.get(this.directory, dbname).toAbsolutePath().toString();
+        }
+        return String.format("jdbc:h2:file:%s", path);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Memory used by a database.
+ * <p>The store is the logical size of the database file, before any
+ * compression: off the heap for an {@link OffHeapStorage}, on disk for a
+ * {@link FileStorage}. A compressed {@link OffHeapStorage} holds less
+ * memory than that, but H2 doesn't tell how much. The cache is the heap
+ * used to cache pages of the store. The rows of an {@link InMemoryStorage}
+ * live in the heap, mixed with other objects, so its footprint is unknown
+ * rather than zero.
+ * @since 0.2
+ */
+public final class Footprint {
+
+    /**
+     * Bytes in a megabyte.
+     */
+    private static final long MEGA = 1024L * 1024L;
+
+    /**
+     * Size not known.
+     */
+    private static final long UNKNOWN = -1L;
+
+    /**
+     * Logical size of the store, uncompressed, in bytes.
+     */
+    private final long uncompressed;
+
+    /**
+     * Size of the cache, in bytes.
+     */
+    private final long cache;
+
+    /**
+     * Ctor.
+     * @param uncompressed Logical size of the store, uncompressed, in bytes
+     * @param cache Size of the cache, in bytes
+     */
+    public Footprint(final long uncompressed, final long cache) {
+        this.uncompressed = uncompressed;
+        this.cache = cache;
+    }
+
+    /**
+     * Ctor.
+     * <p>Footprint not known.
+     */
+    public Footprint() {
+        this(Footprint.UNKNOWN, Footprint.UNKNOWN);
+    }
+
+    /**
+     * Measure the footprint of a database.
+     * @param connection Connection on the database
+     * @return Footprint
+     * @throws SQLException If fails
+     */
+    static Footprint of(final Connection connection) throws SQLException {
+        long uncompressed = Footprint.UNKNOWN;
+        long cache = 0L;
+        try (
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                String.join(
+                    " ",
+                    "SELECT SETTING_NAME, SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS",
+                    "WHERE SETTING_NAME IN ('info.FILE_SIZE', 'info.CACHE_SIZE')"
+                )
+            )
+        ) {
+            while (rs.next()) {
+                if ("info.FILE_SIZE".equals(rs.getString(1))) {
+                    uncompressed = rs.getLong(2);
+                } else {
+                    cache = rs.getLong(2) * Footprint.MEGA;
+                }
+            }
+        }
+        final Footprint footprint;
+        if (uncompressed == Footprint.UNKNOWN) {
+            footprint = new Footprint();
+        } else {
+            footprint = new Footprint(uncompressed, cache);
+        }
+        return footprint;
+    }
+
+    /**
+     * If the footprint is known.
+     * @return False for a database whose rows live in the heap
+     */
+    public boolean known() {
+        return this.uncompressed != Footprint.UNKNOWN;
+    }
+
+    /**
+     * Logical size of the store, uncompressed.
+     * @return Bytes, -1 if not known
+     */
+    public long uncompressed() {
+        return this.uncompressed;
+    }
+
+    /**
+     * Size of the cache.
+     * @return Bytes, -1 if not known
+     */
+    public long cache() {
+        return this.cache;
+    }
+
+    @Override
+    public String toString() {
+        final String text;
+        if (this.known()) {
+            text = String.format(
+                "store %d MB uncompressed, cache %d MB",
+                this.uncompressed / Footprint.MEGA,
+                this.cache / Footprint.MEGA
+            );
+        } else {
+            text = "unknown, rows live in the heap";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invocation of a method on a JDBC object.
+ * <p>It's used by dynamic proxies to delegate a call to the origin object
+ * without wrapping its exceptions.
+ * @since 0.2
+ */
+final class Invocation {
+
+    /**
+     * Origin object.
+     */
+    private final Object origin;
+
+    /**
+     * Method.
+     */
+    private final Method method;
+
+    /**
+     * Arguments.
+     */
+    private final Object[] args;
+
+    /**
+     * Ctor.
+     * @param origin Origin object
+     * @param method Method
+     * @param args Arguments
+     */
+    Invocation(final Object origin, final Method method, final Object... args) {
+        this.origin = origin;
+        this.method = method;
+        this.args = args;
+    }
+
+    /**
+     * Call the method on the origin.
+     * @return Result
+     * @throws Throwable Exception thrown by the method
+     * @checkstyle IllegalThrowsCheck (5 lines)
+     */
+    public Object call() throws Throwable {
+        try {
+            return this.method.invoke(this.origin, this.args);
+        } catch (final InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
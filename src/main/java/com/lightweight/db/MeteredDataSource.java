@@ -0,0 +1,353 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+
+/**
+ * Metered DataSource.
+ * <p>It records how connections and statements of a data source are used:
+ * connections opened and outstanding, duration of the first connection
+ * (initialization of an embedded database included), statements executed,
+ * a latency histogram and the slowest statements. Statistics are read with
+ * {@link #snapshot()} and, if the data source is named, through JMX under
+ * {@code com.lightweight.db:type=Statistics,name=<name>}.
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class MeteredDataSource extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Number of buckets of the latency histogram.
+     */
+    private static final int BUCKETS = 32;
+
+    /**
+     * Number of slowest statements kept.
+     */
+    private static final int SLOWEST = 10;
+
+    /**
+     * Nanoseconds in a microsecond.
+     */
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    /**
+     * JMX name, empty if not exposed.
+     */
+    private final String name;
+
+    /**
+     * Connections opened.
+     */
+    private final LongAdder opened;
+
+    /**
+     * Connections not closed yet.
+     */
+    private final LongAdder outstanding;
+
+    /**
+     * Duration of the first connection, in nanoseconds.
+     */
+    private final AtomicLong initialization;
+
+    /**
+     * If the first connection has been opened.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Statements executed.
+     */
+    private final LongAdder executed;
+
+    /**
+     * Duration of the statements, in nanoseconds.
+     */
+    private final LongAdder nanos;
+
+    /**
+     * Latency histogram.
+     */
+    private final LongAdder[] histogram;
+
+    /**
+     * Slowest statements, the fastest of them first.
+     */
+    private final Queue<Slow> slowest;
+
+    /**
+     * Duration, in nanoseconds, a statement must exceed to be one of the
+     * slowest.
+     */
+    private volatile long floor;
+
+    /**
+     * Ctor.
+     * <p>Statistics are not exposed through JMX.
+     * @param origin Origin
+     */
+    public MeteredDataSource(final DataSource origin) {
+        this(origin, "");
+    }
+
+    /**
+     * Ctor.
+     * <p>Statistics are exposed through JMX until the data source is closed.
+     * @param origin Origin
+     * @param name Name in JMX
+     */
+    public MeteredDataSource(final DataSource origin, final String name) {
+        super(origin);
+        this.name = name;
+        this.opened = new LongAdder();
+        this.outstanding = new LongAdder();
+        this.initialization = new AtomicLong();
+        this.started = new AtomicBoolean(false);
+        this.executed = new LongAdder();
+        this.nanos = new LongAdder();
+        this.histogram = new LongAdder[MeteredDataSource.BUCKETS];
+        for (int idx = 0; idx < MeteredDataSource.BUCKETS; ++idx) {
+            this.histogram[idx] = new LongAdder();
+        }
+        this.slowest = new PriorityQueue<>(
+            Comparator.comparingLong(slow -> slow.nanos)
+        );
+        if (!name.isEmpty()) {
+            this.register();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final long start = System.nanoTime();
+        final Connection connection = super.getConnection();
+        if (this.started.compareAndSet(false, true)) {
+            this.initialization.set(System.nanoTime() - start);
+        }
+        return this.observed(connection);
+    }
+
+    @Override
+    public Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        return this.observed(super.getConnection(username, password));
+    }
+
+    /**
+     * Snapshot of the statistics.
+     * @return Statistics
+     */
+    public Statistics snapshot() {
+        final long[] counts = new long[MeteredDataSource.BUCKETS];
+        for (int idx = 0; idx < MeteredDataSource.BUCKETS; ++idx) {
+            counts[idx] = this.histogram[idx].sum();
+        }
+        final Slow[] slow;
+        synchronized (this.slowest) {
+            slow = this.slowest.toArray(new Slow[0]);
+        }
+        return new Statistics(
+            this.opened.sum(),
+            this.outstanding.sum(),
+            this.initialization.get(),
+            this.executed.sum(),
+            this.nanos.sum(),
+            counts,
+            Arrays.stream(slow)
+                .sorted((left, right) -> Long.compare(right.nanos, left.nanos))
+                .map(Slow::toString)
+                .toArray(String[]::new)
+        );
+    }
+
+    @Override
+    public void close() throws JMException {
+        if (!this.name.isEmpty()) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                this.objectName()
+            );
+        }
+    }
+
+    /**
+     * Observe a connection.
+     * @param connection Connection
+     * @return Observed connection
+     */
+    private Connection observed(final Connection connection) {
+        this.opened.increment();
+        this.outstanding.increment();
+        return new ObservedConnection(
+            connection, this::record, this.outstanding::decrement
+        ).connection();
+    }
+
+    /**
+     * Record an executed statement.
+     * @param sql SQL
+     * @param duration Duration in nanoseconds
+     */
+    private void record(final String sql, final long duration) {
+        this.executed.increment();
+        this.nanos.add(duration);
+        this.histogram[
+            Math.min(
+                MeteredDataSource.BUCKETS - 1,
+                Long.SIZE - Long.numberOfLeadingZeros(
+                    duration / MeteredDataSource.NANOS_PER_MICRO
+                )
+            )
+        ].increment();
+        if (duration > this.floor) {
+            synchronized (this.slowest) {
+                this.slowest.offer(new Slow(sql, duration));
+                if (this.slowest.size() > MeteredDataSource.SLOWEST) {
+                    this.slowest.poll();
+                    this.floor = this.slowest.peek().nanos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Register the statistics in JMX.
+     */
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new Live(), this.objectName()
+            );
+        } catch (final JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * JMX name of the statistics.
+     * @return Name
+     * @throws JMException If the name is not valid
+     */
+    private ObjectName objectName() throws JMException {
+        return new ObjectName(
+            String.format(
+                "com.lightweight.db:type=Statistics,name=%s",
+                ObjectName.quote(this.name)
+            )
+        );
+    }
+
+    /**
+     * Slow statement.
+     * @since 0.2
+     */
+    private static final class Slow {
+
+        /**
+         * SQL.
+         */
+        private final String sql;
+
+        /**
+         * Duration in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Ctor.
+         * @param sql SQL
+         * @param nanos Duration in nanoseconds
+         */
+        Slow(final String sql, final long nanos) {
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d us: %s", this.nanos / MeteredDataSource.NANOS_PER_MICRO,
+                this.sql
+            );
+        }
+    }
+
+    /**
+     * Live statistics, read by JMX.
+     * @since 0.2
+     */
+    private final class Live implements StatisticsMXBean {
+
+        @Override
+        public long getConnectionsOpened() {
+            return MeteredDataSource.this.opened.sum();
+        }
+
+        @Override
+        public long getConnectionsOutstanding() {
+            return MeteredDataSource.this.outstanding.sum();
+        }
+
+        @Override
+        public long getInitializationNanos() {
+            return MeteredDataSource.this.initialization.get();
+        }
+
+        @Override
+        public long getStatementsExecuted() {
+            return MeteredDataSource.this.executed.sum();
+        }
+
+        @Override
+        public long getStatementsNanos() {
+            return MeteredDataSource.this.nanos.sum();
+        }
+
+        @Override
+        public long[] getLatencyHistogram() {
+            return MeteredDataSource.this.snapshot().getLatencyHistogram();
+        }
+
+        @Override
+        public String[] getSlowestStatements() {
+            return MeteredDataSource.this.snapshot().getSlowestStatements();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Observed connection.
+ * <p>It reports to a listener every statement executed through it.
+ * @since 0.2
+ */
+final class ObservedConnection implements InvocationHandler {
+
+    /**
+     * Origin.
+     */
+    private final Connection origin;
+
+    /**
+     * Listener.
+     */
+    private final StatementListener listener;
+
+    /**
+     * Called when the connection is closed.
+     */
+    private final Runnable closing;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param listener Listener
+     * @param closing Called once when the connection is closed
+     */
+    ObservedConnection(
+        final Connection origin, final StatementListener listener,
+        final Runnable closing
+    ) {
+        this.origin = origin;
+        this.listener = listener;
+        this.closing = closing;
+    }
+
+    /**
+     * Connection.
+     * @return Proxy of the connection
+     */
+    public Connection connection() {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            this
+        );
+    }
+
+    @Override
+    public Object invoke(
+        final Object proxy, final Method method, final Object[] args
+    ) throws Throwable {
+        final String name = method.getName();
+        final Object result;
+        if ("equals".equals(name)) {
+            result = proxy == args[0];
+        } else if ("hashCode".equals(name)) {
+            result = System.identityHashCode(proxy);
+        } else {
+            if ("close".equals(name) && !this.origin.isClosed()) {
+                this.closing.run();
+            }
+            result = this.observed(
+                new Invocation(this.origin, method, args).call(),
+                name, args, (Connection) proxy
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Observe a statement created by the connection.
+     * @param result Result of a method of the connection
+     * @param name Name of the method
+     * @param args Arguments of the method
+     * @param connection Observed connection
+     * @return Observed statement or the result as is
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Object observed(
+        final Object result, final String name, final Object[] args,
+        final Connection connection
+    ) {
+        final Object observed;
+        if (result instanceof Statement) {
+            final String sql;
+            if ("createStatement".equals(name)) {
+                sql = "";
+            } else {
+                sql = (String) args[0];
+            }
+            observed = Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{ObservedConnection.type(result)},
+                new Observed(result, sql, connection)
+            );
+        } else {
+            observed = result;
+        }
+        return observed;
+    }
+
+    /**
+     * Most specific statement interface of a statement.
+     * @param statement Statement
+     * @return Interface
+     */
+    private static Class<?> type(final Object statement) {
+        final Class<?> type;
+        if (statement instanceof CallableStatement) {
+            type = CallableStatement.class;
+        } else if (statement instanceof PreparedStatement) {
+            type = PreparedStatement.class;
+        } else {
+            type = Statement.class;
+        }
+        return type;
+    }
+
+    /**
+     * Observed statement.
+     * @since 0.2
+     */
+    private final class Observed implements InvocationHandler {
+
+        /**
+         * Origin.
+         */
+        private final Object statement;
+
+        /**
+         * SQL of the prepared statement, empty for a plain statement.
+         */
+        private final String prepared;
+
+        /**
+         * Observed connection of the statement.
+         */
+        private final Connection connection;
+
+        /**
+         * Last SQL added to the batch of a plain statement.
+         */
+        private volatile String batched;
+
+        /**
+         * Ctor.
+         * @param statement Origin
+         * @param prepared SQL of the prepared statement
+         * @param connection Observed connection of the statement
+         */
+        Observed(
+            final Object statement, final String prepared,
+            final Connection connection
+        ) {
+            this.statement = statement;
+            this.prepared = prepared;
+            this.connection = connection;
+            this.batched = prepared;
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final String name = method.getName();
+            final Object result;
+            if (name.startsWith("execute")) {
+                final String sql;
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    sql = (String) args[0];
+                } else if ("executeBatch".equals(name)
+                    || "executeLargeBatch".equals(name)) {
+                    sql = this.batched;
+                } else {
+                    sql = this.prepared;
+                }
+                final long start = System.nanoTime();
+                try {
+                    result = new Invocation(this.statement, method, args).call();
+                } finally {
+                    ObservedConnection.this.listener.executed(
+                        sql, System.nanoTime() - start
+                    );
+                }
+            } else {
+                if ("addBatch".equals(name) && args != null && args.length > 0) {
+                    this.batched = (String) args[0];
+                }
+                if ("getConnection".equals(name)) {
+                    result = this.connection;
+                } else {
+                    result = new Invocation(this.statement, method, args).call();
+                }
+            }
+            return result;
+        }
+    }
+}
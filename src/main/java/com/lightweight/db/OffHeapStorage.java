@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+/**
+ * Off-heap storage.
+ * <p>The database is written in an in-memory file system made of direct
+ * buffers, out of the heap, so that large datasets neither hit the disk
+ * nor weigh on the garbage collector. It can be compressed, at the cost of
+ * some speed. It is kept alive by {@link EmbeddedDataSource} between
+ * connections and deleted when it's closed.
+ * @see <a href="http://h2database.com/html/advanced.html#file_system">H2 - Pluggable File System</a>
+ * @since 0.2
+ */
+public final class OffHeapStorage implements Storage {
+
+    /**
+     * If the database is compressed.
+     */
+    private final boolean compressed;
+
+    /**
+     * Ctor.
+     */
+    public OffHeapStorage() {
+        this(false);
+    }
+
+    /**
+     * Ctor.
+     * @param compressed If the database is compressed
+     */
+    public OffHeapStorage(final boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    @Override
+    public String url(final String dbname) {
+        final String system;
+        if (this.compressed) {
+            system = "nioMemLZF";
+        } else {
+            system = "nioMemFS";
+        }
+        return String.format("jdbc:h2:%s:%s", system, dbname);
+    }
+}
@@ -0,0 +1,571 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Pooled DataSource.
+ * <p>It keeps physical connections of a data source open and lends them
+ * again, so that short-lived connections don't pay the opening of a new
+ * H2 session. The pool is bounded, evicts connections that stay idle too
+ * long and validates a connection before lending it. A connection given
+ * back is reset for the next borrower: its statements are closed, its
+ * transaction rolled back and the properties changed by the borrower
+ * (read-only mode, isolation level, catalog, schema, holdability) restored.
+ * A connection that can't be reset is closed.
+ * <p>With a leak threshold, connections that are not given back in time
+ * are reported with the stack trace of their borrower. It's disabled by
+ * default: capturing a stack trace on each borrow isn't free.
+ * <p>Connections acquired with user credentials are not pooled.
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class PooledDataSource extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Default maximum number of connections.
+     */
+    private static final int DEFAULT_SIZE = 10;
+
+    /**
+     * Default time a connection may stay idle.
+     */
+    private static final Duration DEFAULT_IDLE = Duration.ofMinutes(1L);
+
+    /**
+     * Default time, in seconds, to wait for a connection.
+     */
+    private static final int DEFAULT_WAIT = 30;
+
+    /**
+     * Time, in seconds, to validate a connection.
+     */
+    private static final int VALIDATION = 1;
+
+    /**
+     * Number of statements of a lease above which the closed ones are
+     * forgotten.
+     */
+    private static final int STATEMENTS = 64;
+
+    /**
+     * Methods creating a statement.
+     */
+    private static final Set<String> CREATING = new HashSet<>(
+        Arrays.asList("createStatement", "prepareStatement", "prepareCall")
+    );
+
+    /**
+     * Methods changing a property restored on give back.
+     */
+    private static final Set<String> SETTINGS = new HashSet<>(
+        Arrays.asList(
+            "setReadOnly", "setTransactionIsolation", "setCatalog",
+            "setSchema", "setHoldability"
+        )
+    );
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        PooledDataSource.class.getName()
+    );
+
+    /**
+     * Origin.
+     */
+    private final DataSource origin;
+
+    /**
+     * Permits to borrow a connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, the most recently used first.
+     */
+    private final Deque<Idle> idle;
+
+    /**
+     * Borrowed connections.
+     */
+    private final Map<Lease, Boolean> leases;
+
+    /**
+     * Time, in nanoseconds, a connection may stay idle.
+     */
+    private final long expiry;
+
+    /**
+     * Time, in nanoseconds, after which a borrowed connection is a leak,
+     * zero if leaks are not detected.
+     */
+    private final long leak;
+
+    /**
+     * If the pool is closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public PooledDataSource(final DataSource origin) {
+        this(origin, PooledDataSource.DEFAULT_SIZE);
+    }
+
+    /**
+     * Ctor.
+     * <p>Leaks are not detected.
+     * @param origin Origin
+     * @param size Maximum number of connections
+     */
+    public PooledDataSource(final DataSource origin, final int size) {
+        this(origin, size, PooledDataSource.DEFAULT_IDLE, Duration.ZERO);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param size Maximum number of connections
+     * @param idle Time a connection may stay idle before being closed
+     * @param leak Time after which a borrowed connection is reported,
+     *  zero to not detect leaks
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PooledDataSource(
+        final DataSource origin, final int size,
+        final Duration idle, final Duration leak
+    ) {
+        super(origin);
+        this.origin = origin;
+        this.permits = new Semaphore(size, true);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.leases = new ConcurrentHashMap<>();
+        this.expiry = idle.toNanos();
+        this.leak = leak.toNanos();
+        this.closed = new AtomicBoolean(false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (this.closed.get()) {
+            throw new SQLException("Pool is closed");
+        }
+        this.reportLeaks();
+        if (!this.acquire()) {
+            final SQLException error = new SQLTransientConnectionException(
+                String.format(
+                    "Pool is exhausted: %d connection(s) borrowed",
+                    this.leases.size()
+                )
+            );
+            for (final Lease lease : this.leases.keySet()) {
+                if (lease.trace != null) {
+                    error.addSuppressed(lease.trace);
+                }
+            }
+            throw error;
+        }
+        try {
+            final Lease lease = new Lease(this.physical(), this.leak > 0L);
+            this.leases.put(lease, true);
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                lease
+            );
+        } catch (final SQLException | RuntimeException ex) {
+            this.permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.closed.compareAndSet(false, true)) {
+            for (Idle conn = this.idle.poll(); conn != null;
+                conn = this.idle.poll()) {
+                conn.physical.connection.close();
+            }
+        }
+    }
+
+    /**
+     * Acquire a permit to borrow a connection.
+     * <p>It waits at most the login timeout of the data source.
+     * @return True if acquired
+     * @throws SQLException If interrupted
+     */
+    private boolean acquire() throws SQLException {
+        int wait = this.getLoginTimeout();
+        if (wait <= 0) {
+            wait = PooledDataSource.DEFAULT_WAIT;
+        }
+        try {
+            return this.permits.tryAcquire(wait, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        }
+    }
+
+    /**
+     * Take a valid physical connection.
+     * <p>Idle connections that expired or are no longer valid are closed
+     * on the way.
+     * @return Physical connection
+     * @throws SQLException If fails
+     */
+    private Physical physical() throws SQLException {
+        Physical found = null;
+        while (found == null) {
+            final Idle conn = this.idle.poll();
+            if (conn == null) {
+                found = new Physical(this.origin.getConnection());
+            } else if (System.nanoTime() - conn.since < this.expiry
+                && conn.physical.connection.isValid(PooledDataSource.VALIDATION)) {
+                found = conn.physical;
+            } else {
+                conn.physical.connection.close();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Report borrowed connections held for too long.
+     */
+    private void reportLeaks() {
+        if (this.leak > 0L) {
+            final long now = System.nanoTime();
+            for (final Lease lease : this.leases.keySet()) {
+                if (now - lease.since > this.leak
+                    && lease.reported.compareAndSet(false, true)) {
+                    PooledDataSource.LOGGER.log(
+                        Level.WARNING,
+                        String.format(
+                            "Connection borrowed for more than %d ms, possible leak",
+                            TimeUnit.NANOSECONDS.toMillis(now - lease.since)
+                        ),
+                        lease.trace
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Give back a physical connection to the pool.
+     * <p>The connection is closed if it can't be reset.
+     * @param lease Lease of the connection
+     * @throws SQLException If fails
+     */
+    private void giveBack(final Lease lease) throws SQLException {
+        this.leases.remove(lease);
+        try {
+            final Connection connection = lease.physical.connection;
+            if (this.closed.get()) {
+                connection.close();
+            } else if (!connection.isClosed()) {
+                try {
+                    lease.reset();
+                } catch (final SQLException ex) {
+                    try {
+                        connection.close();
+                    } catch (final SQLException suppressed) {
+                        ex.addSuppressed(suppressed);
+                    }
+                    throw ex;
+                }
+                this.idle.offerFirst(new Idle(lease.physical));
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Physical connection with the properties it was opened with.
+     * @since 0.2
+     */
+    private static final class Physical {
+
+        /**
+         * Physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Initial auto-commit mode.
+         */
+        private final boolean autocommit;
+
+        /**
+         * Initial read-only mode.
+         */
+        private final boolean readonly;
+
+        /**
+         * Initial transaction isolation level.
+         */
+        private final int isolation;
+
+        /**
+         * Initial catalog.
+         */
+        private final String catalog;
+
+        /**
+         * Initial schema.
+         */
+        private final String schema;
+
+        /**
+         * Initial holdability.
+         */
+        private final int holdability;
+
+        /**
+         * Ctor.
+         * @param connection Physical connection, just opened
+         * @throws SQLException If fails
+         */
+        Physical(final Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autocommit = connection.getAutoCommit();
+            this.readonly = connection.isReadOnly();
+            this.isolation = connection.getTransactionIsolation();
+            this.catalog = connection.getCatalog();
+            this.schema = connection.getSchema();
+            this.holdability = connection.getHoldability();
+        }
+
+        /**
+         * Restore the auto-commit mode, rolling back the transaction in
+         * progress if any.
+         * @throws SQLException If fails
+         */
+        void rollback() throws SQLException {
+            if (!this.connection.getAutoCommit()) {
+                this.connection.rollback();
+            }
+            if (this.connection.getAutoCommit() != this.autocommit) {
+                this.connection.setAutoCommit(this.autocommit);
+            }
+        }
+
+        /**
+         * Restore the other initial properties.
+         * @throws SQLException If fails
+         */
+        void restore() throws SQLException {
+            this.connection.setReadOnly(this.readonly);
+            this.connection.setTransactionIsolation(this.isolation);
+            this.connection.setCatalog(this.catalog);
+            this.connection.setSchema(this.schema);
+            this.connection.setHoldability(this.holdability);
+        }
+    }
+
+    /**
+     * Idle physical connection.
+     * @since 0.2
+     */
+    private static final class Idle {
+
+        /**
+         * Physical connection.
+         */
+        private final Physical physical;
+
+        /**
+         * Time, in nanoseconds, since the connection is idle.
+         */
+        private final long since;
+
+        /**
+         * Ctor.
+         * @param physical Physical connection
+         */
+        Idle(final Physical physical) {
+            this.physical = physical;
+            this.since = System.nanoTime();
+        }
+    }
+
+    /**
+     * Lease of a physical connection.
+     * <p>It handles calls on the connection handed out by the pool.
+     * @since 0.2
+     */
+    private final class Lease implements InvocationHandler {
+
+        /**
+         * Physical connection.
+         */
+        private final Physical physical;
+
+        /**
+         * Where the connection was borrowed, null if leaks are not detected.
+         */
+        private final Throwable trace;
+
+        /**
+         * Time, in nanoseconds, when the connection was borrowed.
+         */
+        private final long since;
+
+        /**
+         * If the connection was given back.
+         */
+        private final AtomicBoolean returned;
+
+        /**
+         * If the connection was reported as a leak.
+         */
+        private final AtomicBoolean reported;
+
+        /**
+         * Statements created by the borrower.
+         */
+        private final Queue<Statement> statements;
+
+        /**
+         * If the borrower changed a property restored on give back.
+         */
+        private volatile boolean tuned;
+
+        /**
+         * Ctor.
+         * @param physical Physical connection
+         * @param traced If the borrower is traced
+         */
+        Lease(final Physical physical, final boolean traced) {
+            this.physical = physical;
+            if (traced) {
+                this.trace = new Throwable("Connection borrowed here");
+            } else {
+                this.trace = null;
+            }
+            this.since = System.nanoTime();
+            this.returned = new AtomicBoolean(false);
+            this.reported = new AtomicBoolean(false);
+            this.statements = new ConcurrentLinkedQueue<>();
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final Object result;
+            final String name = method.getName();
+            if ("close".equals(name)) {
+                if (this.returned.compareAndSet(false, true)) {
+                    PooledDataSource.this.giveBack(this);
+                }
+                result = null;
+            } else if ("isClosed".equals(name)) {
+                result = this.returned.get() || this.physical.connection.isClosed();
+            } else if ("equals".equals(name)) {
+                result = proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                result = System.identityHashCode(proxy);
+            } else if (this.returned.get()
+                && method.getDeclaringClass() != Object.class) {
+                throw new SQLException("Connection is closed");
+            } else {
+                if (PooledDataSource.SETTINGS.contains(name)) {
+                    this.tuned = true;
+                }
+                result = new Invocation(this.physical.connection, method, args).call();
+                if (PooledDataSource.CREATING.contains(name)) {
+                    this.track((Statement) result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Reset the connection for the next borrower.
+         * @throws SQLException If fails
+         */
+        void reset() throws SQLException {
+            for (Statement stmt = this.statements.poll(); stmt != null;
+                stmt = this.statements.poll()) {
+                stmt.close();
+            }
+            this.physical.rollback();
+            if (this.tuned) {
+                this.physical.restore();
+            }
+            this.physical.connection.clearWarnings();
+        }
+
+        /**
+         * Track a statement created by the borrower.
+         * @param stmt Statement
+         * @throws SQLException If fails
+         */
+        private void track(final Statement stmt) throws SQLException {
+            this.statements.add(stmt);
+            if (this.statements.size() > PooledDataSource.STATEMENTS) {
+                final Iterator<Statement> all = this.statements.iterator();
+                while (all.hasNext()) {
+                    if (all.next().isClosed()) {
+                        all.remove();
+                    }
+                }
+            }
+        }
+    }
+}
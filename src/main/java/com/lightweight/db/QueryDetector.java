@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+
+/**
+ * DataSource detecting repeated and slow statements.
+ * <p>It normalizes the SQL of each executed statement, replacing literals
+ * with {@code ?} and collapsing lists of parameters, then counts the
+ * executions of each normalized statement and keeps their longest
+ * duration. A statement executed more than the allowed number of times
+ * in a scope is likely an N+1 pattern, hidden by how fast an embedded
+ * database answers: a query issued once per row of a former query.
+ * <p>A scope starts with the detector, and again after each
+ * {@link #reset()} or {@link #verify()}:
+ * <pre>{@code
+ * final QueryDetector source = new QueryDetector(
+ *     new EmbeddedH2DataSource(), 10, Duration.ofMillis(100)
+ * );
+ * new Accounts(source).all();
+ * source.verify();
+ * }</pre>
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class QueryDetector extends DataSourceWrap {
+
+    /**
+     * Default maximum number of executions of a statement in a scope.
+     */
+    private static final int DEFAULT_REPEATS = 10;
+
+    /**
+     * Default maximum duration of a statement.
+     */
+    private static final Duration DEFAULT_LATENCY = Duration.ofMillis(100L);
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * String literal.
+     */
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+
+    /**
+     * Numeric literal, out of an identifier.
+     */
+    private static final Pattern NUMBER = Pattern.compile(
+        "(?<![\\w$.\"])\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?"
+    );
+
+    /**
+     * List of parameters.
+     */
+    private static final Pattern LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    /**
+     * Whitespaces.
+     */
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /**
+     * Maximum number of executions of a statement in a scope.
+     */
+    private final int repeats;
+
+    /**
+     * Maximum duration of a statement, in nanoseconds.
+     */
+    private final long latency;
+
+    /**
+     * Statements of the current scope, by normalized SQL.
+     */
+    private final AtomicReference<ConcurrentMap<String, Tally>> scope;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public QueryDetector(final DataSource origin) {
+        this(origin, QueryDetector.DEFAULT_REPEATS, QueryDetector.DEFAULT_LATENCY);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param repeats Maximum number of executions of a statement in a scope
+     * @param latency Maximum duration of a statement
+     */
+    public QueryDetector(
+        final DataSource origin, final int repeats, final Duration latency
+    ) {
+        super(origin);
+        this.repeats = repeats;
+        this.latency = latency.toNanos();
+        this.scope = new AtomicReference<>(new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.observed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        return this.observed(super.getConnection(username, password));
+    }
+
+    /**
+     * Report of the current scope.
+     * @return Report
+     */
+    public QueryReport report() {
+        return this.report(this.scope.get());
+    }
+
+    /**
+     * End the current scope and start a new one.
+     * @return Report of the ended scope
+     */
+    public QueryReport reset() {
+        return this.report(this.scope.getAndSet(new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * End the current scope, start a new one and fail if a threshold
+     * has been exceeded in the ended scope.
+     * @return Report of the ended scope
+     * @throws AssertionError If a statement was repeated or slow
+     */
+    public QueryReport verify() {
+        final QueryReport report = this.reset();
+        if (report.exceeded()) {
+            throw new AssertionError(report.toString());
+        }
+        return report;
+    }
+
+    /**
+     * Normalize a SQL statement.
+     * @param sql SQL
+     * @return SQL with literals replaced by {@code ?}
+     */
+    static String normalized(final String sql) {
+        String shape = QueryDetector.STRING.matcher(sql).replaceAll("?");
+        shape = QueryDetector.NUMBER.matcher(shape).replaceAll("?");
+        shape = QueryDetector.LIST.matcher(shape).replaceAll("?");
+        return QueryDetector.SPACES.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * Observe a connection.
+     * @param connection Connection
+     * @return Observed connection
+     */
+    private Connection observed(final Connection connection) {
+        return new ObservedConnection(connection, this::record, () -> { })
+            .connection();
+    }
+
+    /**
+     * Record an executed statement.
+     * @param sql SQL
+     * @param duration Duration in nanoseconds
+     */
+    private void record(final String sql, final long duration) {
+        if (sql != null) {
+            this.scope.get().computeIfAbsent(
+                QueryDetector.normalized(sql), key -> new Tally()
+            ).add(duration);
+        }
+    }
+
+    /**
+     * Report of a scope.
+     * @param statements Statements of the scope
+     * @return Report
+     */
+    private QueryReport report(final Map<String, Tally> statements) {
+        final List<Executions> executions = new ArrayList<>(statements.size());
+        long count = 0L;
+        for (final Map.Entry<String, Tally> entry : statements.entrySet()) {
+            final Executions stmt = new Executions(entry.getKey(), entry.getValue());
+            executions.add(stmt);
+            count += stmt.times;
+        }
+        final List<String> repeated = new ArrayList<>(0);
+        executions.sort(
+            Comparator.comparingLong((Executions stmt) -> stmt.times)
+                .reversed()
+        );
+        for (final Executions stmt : executions) {
+            if (stmt.times > this.repeats) {
+                repeated.add(
+                    String.format(
+                        "%d times (at most %d): %s",
+                        stmt.times, this.repeats, stmt.sql
+                    )
+                );
+            }
+        }
+        final List<String> slow = new ArrayList<>(0);
+        executions.sort(
+            Comparator.comparingLong((Executions stmt) -> stmt.longest)
+                .reversed()
+        );
+        for (final Executions stmt : executions) {
+            if (stmt.longest > this.latency) {
+                slow.add(
+                    String.format(
+                        "%d ms (at most %d ms): %s",
+                        stmt.longest / QueryDetector.NANOS_PER_MILLI,
+                        this.latency / QueryDetector.NANOS_PER_MILLI,
+                        stmt.sql
+                    )
+                );
+            }
+        }
+        return new QueryReport(count, executions.size(), repeated, slow);
+    }
+
+    /**
+     * Executions of a normalized statement.
+     * @since 0.2
+     */
+    private static final class Tally {
+
+        /**
+         * Number of executions.
+         */
+        private final LongAdder count;
+
+        /**
+         * Longest execution, in nanoseconds.
+         */
+        private final LongAccumulator max;
+
+        /**
+         * Ctor.
+         */
+        Tally() {
+            this.count = new LongAdder();
+            this.max = new LongAccumulator(Math::max, 0L);
+        }
+
+        /**
+         * Add an execution.
+         * @param nanos Duration in nanoseconds
+         */
+        void add(final long nanos) {
+            this.count.increment();
+            this.max.accumulate(nanos);
+        }
+    }
+
+    /**
+     * Executions of a normalized statement, at a given time.
+     * @since 0.2
+     */
+    private static final class Executions {
+
+        /**
+         * Normalized SQL.
+         */
+        private final String sql;
+
+        /**
+         * Number of executions.
+         */
+        private final long times;
+
+        /**
+         * Longest execution, in nanoseconds.
+         */
+        private final long longest;
+
+        /**
+         * Ctor.
+         * @param sql Normalized SQL
+         * @param tally Executions
+         */
+        Executions(final String sql, final Tally tally) {
+            this.sql = sql;
+            this.times = tally.count.sum();
+            this.longest = tally.max.get();
+        }
+    }
+}
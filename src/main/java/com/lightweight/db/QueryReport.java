@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of the statements executed in a scope of a {@link QueryDetector}.
+ * @since 0.2
+ */
+public final class QueryReport {
+
+    /**
+     * Number of statements executed.
+     */
+    private final long statements;
+
+    /**
+     * Number of distinct statements, once normalized.
+     */
+    private final int distinct;
+
+    /**
+     * Statements executed more often than allowed.
+     */
+    private final List<String> repeated;
+
+    /**
+     * Statements slower than allowed.
+     */
+    private final List<String> slow;
+
+    /**
+     * Ctor.
+     * @param statements Number of statements executed
+     * @param distinct Number of distinct statements
+     * @param repeated Statements executed more often than allowed
+     * @param slow Statements slower than allowed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public QueryReport(
+        final long statements, final int distinct,
+        final List<String> repeated, final List<String> slow
+    ) {
+        this.statements = statements;
+        this.distinct = distinct;
+        this.repeated = Collections.unmodifiableList(repeated);
+        this.slow = Collections.unmodifiableList(slow);
+    }
+
+    /**
+     * Number of statements executed.
+     * @return Number of statements
+     */
+    public long statements() {
+        return this.statements;
+    }
+
+    /**
+     * Number of distinct statements, once normalized.
+     * @return Number of distinct statements
+     */
+    public int distinct() {
+        return this.distinct;
+    }
+
+    /**
+     * Statements executed more often than allowed, with their count.
+     * @return Statements, the most repeated first
+     */
+    public List<String> repeated() {
+        return this.repeated;
+    }
+
+    /**
+     * Statements slower than allowed, with their longest duration.
+     * @return Statements, the slowest first
+     */
+    public List<String> slow() {
+        return this.slow;
+    }
+
+    /**
+     * Whether a threshold has been exceeded.
+     * @return True if a statement was repeated or slow
+     */
+    public boolean exceeded() {
+        return !this.repeated.isEmpty() || !this.slow.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder(
+            String.format(
+                "%d statement(s), %d distinct",
+                this.statements, this.distinct
+            )
+        );
+        for (final String stmt : this.repeated) {
+            report.append(System.lineSeparator()).append("  repeated ")
+                .append(stmt);
+        }
+        for (final String stmt : this.slow) {
+            report.append(System.lineSeparator()).append("  slow ")
+                .append(stmt);
+        }
+        return report.toString();
+    }
+}
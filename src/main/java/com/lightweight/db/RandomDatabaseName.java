@@ -24,51 +24,66 @@
 
 package com.lightweight.db;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Random database name.
+ * <p>A name is made of a prefix, the process id of the JVM and a counter,
+ * separated by underscores. So it's unique within a JVM and across JVMs
+ * running on the same host, as Surefire forks sharing the same storage
+ * directory.
  * @since 0.1
  */
 public final class RandomDatabaseName {
 
     /**
-     * Minimum of random interval.
+     * Default prefix.
      */
-    private static final int DEFAULT_MIN = 0;
+    private static final String DEFAULT_PREFIX = "test_db";
 
     /**
-     * Maximum of random interval.
+     * Process id of this JVM.
      */
-    private static final int DEFAULT_MAX = 1_000_000;
+    static final String PID = ManagementFactory.getRuntimeMXBean()
+        .getName().split("@")[0];
 
     /**
-     * Minimum of random interval.
+     * Counter of names in this JVM.
      */
-    private final int min;
+    private static final AtomicLong COUNTER = new AtomicLong();
 
     /**
-     * Maximum of random interval.
+     * Prefix.
      */
-    private final int max;
+    private final String prefix;
 
     /**
      * Ctor.
-     * <p>Random interval.
      */
     public RandomDatabaseName() {
-        this(
-            RandomDatabaseName.DEFAULT_MIN,
-            RandomDatabaseName.DEFAULT_MAX
-        );
+        this(RandomDatabaseName.DEFAULT_PREFIX);
     }
 
     /**
      * Ctor.
+     * <p>Names are no longer drawn from an interval, it's ignored.
      * @param min Minimum of random interval
-     * @param max Maximum of maximum interval
+     * @param max Maximum of random interval
+     * @deprecated Use {@link #RandomDatabaseName()}
      */
+    @Deprecated
+    @SuppressWarnings("PMD.UnusedFormalParameter")
     public RandomDatabaseName(final int min, final int max) {
-        this.min = min;
-        this.max = max;
+        this();
+    }
+
+    /**
+     * Ctor.
+     * @param prefix Prefix of names
+     */
+    public RandomDatabaseName(final String prefix) {
+        this.prefix = prefix;
     }
 
     /**
@@ -76,11 +91,11 @@ public final class RandomDatabaseName {
      * @return Name
      */
     public String value() {
-        final int randomnumber = this.min + (int) (Math.random() * ((this.max - this.min) + 1));
-        return String.format(
-            "test_db%s_%s",
-            Thread.currentThread().getId(),
-            randomnumber
-        );
+        return new StringBuilder(this.prefix)
+            .append('_')
+            .append(RandomDatabaseName.PID)
+            .append('_')
+            .append(RandomDatabaseName.COUNTER.incrementAndGet())
+            .toString();
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registry of the embedded databases of the JVM.
+ * <p>Data sources built for the same url share one initialized database,
+ * so that the second one neither pays the initialization again nor wipes
+ * the data of the first one. The database is closed when the last data
+ * source sharing it is closed.
+ * <p>Only the databases named explicitly are registered: a random name is
+ * never shared, so the registry doesn't keep the databases of the data
+ * sources built without a name.
+ * @since 0.2
+ */
+final class Registry {
+
+    /**
+     * Shared databases, by normalized url.
+     */
+    private static final Map<String, Shared> DATABASES = new HashMap<>();
+
+    /**
+     * Lock of the registry.
+     */
+    private static final Lock LOCK = new ReentrantLock();
+
+    /**
+     * Ctor.
+     */
+    private Registry() {
+        // Utility class
+    }
+
+    /**
+     * Acquire the database of a url, creating it if needed.
+     * @param url Url
+     * @return Database
+     */
+    static EmbeddedDataSource acquire(final String url) {
+        Registry.LOCK.lock();
+        try {
+            final Shared shared = Registry.DATABASES.computeIfAbsent(
+                Registry.normalized(url),
+                key -> new Shared(new EmbeddedDataSource(url))
+            );
+            shared.holders += 1;
+            return shared.source;
+        } finally {
+            Registry.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Release the database of a url, closing it if nobody holds it anymore.
+     * @param url Url
+     * @throws SQLException If fails
+     */
+    static void release(final String url) throws SQLException {
+        Registry.LOCK.lock();
+        try {
+            final String key = Registry.normalized(url);
+            final Shared shared = Registry.DATABASES.get(key);
+            if (shared != null) {
+                shared.holders -= 1;
+                if (shared.holders == 0) {
+                    Registry.DATABASES.remove(key);
+                    shared.source.close();
+                }
+            }
+        } finally {
+            Registry.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Number of shared databases.
+     * @return Number of databases
+     */
+    static int size() {
+        Registry.LOCK.lock();
+        try {
+            return Registry.DATABASES.size();
+        } finally {
+            Registry.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Normalize a url.
+     * <p>Settings are sorted and their names upper-cased, so that the order
+     * and the case of the settings don't matter.
+     * @param url Url
+     * @return Normalized url
+     */
+    static String normalized(final String url) {
+        final String[] parts = url.trim().split("(?<!\\\\);");
+        final List<String> settings = new ArrayList<>(parts.length);
+        for (int idx = 1; idx < parts.length; ++idx) {
+            final String setting = parts[idx].trim();
+            final int equal = setting.indexOf('=');
+            if (equal > 0) {
+                settings.add(
+                    String.format(
+                        "%s=%s",
+                        setting.substring(0, equal).trim().toUpperCase(Locale.ENGLISH),
+                        setting.substring(equal + 1).trim()
+                    )
+                );
+            } else if (!setting.isEmpty()) {
+                settings.add(setting.toUpperCase(Locale.ENGLISH));
+            }
+        }
+        Collections.sort(settings);
+        final StringBuilder normalized = new StringBuilder(parts[0]);
+        for (final String setting : settings) {
+            normalized.append(';').append(setting);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Database shared by data sources.
+     * @since 0.2
+     */
+    private static final class Shared {
+
+        /**
+         * Database.
+         */
+        private final EmbeddedDataSource source;
+
+        /**
+         * Number of data sources holding it.
+         */
+        private int holders;
+
+        /**
+         * Ctor.
+         * @param source Database
+         */
+        Shared(final EmbeddedDataSource source) {
+            this.source = source;
+        }
+    }
+}
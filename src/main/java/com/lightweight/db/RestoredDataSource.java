@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+/**
+ * DataSource restored from a snapshot.
+ * <p>The snapshot is replayed into the origin on the first connection.
+ * <pre>{@code
+ * static final Snapshot GOLDEN = new Snapshot(
+ *     new LiquibaseDataSource(
+ *         new EmbeddedPostgreSQLDataSource(),
+ *         "liquibase/db.changelog-master-test.xml"
+ *     )
+ * );
+ * final DataSource source = new RestoredDataSource(
+ *     GOLDEN, new EmbeddedPostgreSQLDataSource()
+ * );
+ * }</pre>
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class RestoredDataSource extends DataSourceWrap {
+
+    /**
+     * Snapshot.
+     */
+    private final Snapshot snapshot;
+
+    /**
+     * Origin.
+     */
+    private final DataSource origin;
+
+    /**
+     * Lock of the restoration.
+     */
+    private final Lock lock;
+
+    /**
+     * If it has been restored.
+     */
+    private volatile boolean restored;
+
+    /**
+     * Ctor.
+     * @param snapshot Snapshot
+     * @param origin Fresh database
+     */
+    public RestoredDataSource(final Snapshot snapshot, final DataSource origin) {
+        super(origin);
+        this.snapshot = snapshot;
+        this.origin = origin;
+        this.lock = new ReentrantLock();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        this.tryToRestore();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        this.tryToRestore();
+        return super.getConnection(username, password);
+    }
+
+    /**
+     * Try to restore the snapshot.
+     * @throws SQLException If fails
+     */
+    private void tryToRestore() throws SQLException {
+        if (!this.restored) {
+            this.lock.lock();
+            try {
+                if (!this.restored) {
+                    this.snapshot.restore(this.origin);
+                    this.restored = true;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
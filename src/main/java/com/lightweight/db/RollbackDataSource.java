@@ -0,0 +1,333 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import com.baudoliver7.jdbc.toolset.wrapper.DataSourceWrap;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+/**
+ * Rollback DataSource.
+ * <p>All the connections it hands out share one physical connection and so
+ * one transaction, which is rolled back on {@link #reset()}. Closing or
+ * changing the auto-commit mode of a handed out connection has no effect.
+ * Each handed out connection behaves as a transaction of its own, nested in
+ * the shared one through a savepoint: rolling it back only undoes what it
+ * did since it was handed out or last committed, and committing it only
+ * moves its savepoint. The physical connection is never handed out, not
+ * even by its statements. It lets a migrated database be reused by a whole
+ * test suite: rolling back is much cheaper than creating the schema again.
+ * <p>Keep in mind that H2 commits a transaction on DDL statements, so the
+ * schema must be created before.
+ * @since 0.2
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+public final class RollbackDataSource extends DataSourceWrap implements AutoCloseable {
+
+    /**
+     * Methods of a connection returning objects that give the connection
+     * back.
+     */
+    private static final Set<String> OWNED = new HashSet<>(
+        Arrays.asList(
+            "createStatement", "prepareStatement", "prepareCall", "getMetaData"
+        )
+    );
+
+    /**
+     * Origin.
+     */
+    private final DataSource origin;
+
+    /**
+     * Lock of the physical connection.
+     */
+    private final Lock lock;
+
+    /**
+     * Physical connection.
+     */
+    private volatile Connection physical;
+
+    /**
+     * Savepoint set right after the last reset.
+     */
+    private Savepoint base;
+
+    /**
+     * Number of resets.
+     */
+    private long resets;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public RollbackDataSource(final DataSource origin) {
+        super(origin);
+        this.origin = origin;
+        this.lock = new ReentrantLock();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        this.lock.lock();
+        try {
+            final Connection connection = this.shared();
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Shared(connection, connection.setSavepoint(), this.resets)
+            );
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public Connection getConnection(
+        final String username, final String password
+    ) throws SQLException {
+        return this.getConnection();
+    }
+
+    /**
+     * Roll back everything done since the last reset.
+     * @throws SQLException If fails
+     */
+    public void reset() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.physical != null) {
+                this.physical.rollback();
+                this.base = this.physical.setSavepoint();
+                this.resets += 1L;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.physical != null) {
+                try {
+                    this.physical.rollback();
+                } finally {
+                    this.physical.close();
+                    this.physical = null;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Shared physical connection.
+     * <p>It's opened on the first call with auto-commit disabled. The lock
+     * must be held.
+     * @return Physical connection
+     * @throws SQLException If fails
+     */
+    private Connection shared() throws SQLException {
+        if (this.physical == null) {
+            final Connection connection = this.origin.getConnection();
+            connection.setAutoCommit(false);
+            this.base = connection.setSavepoint();
+            this.physical = connection;
+        }
+        return this.physical;
+    }
+
+    /**
+     * Handed out connection.
+     * @since 0.2
+     */
+    private final class Shared implements InvocationHandler {
+
+        /**
+         * Physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Savepoint its rollback goes back to.
+         */
+        private Savepoint mark;
+
+        /**
+         * Number of resets when the savepoint was set.
+         */
+        private long epoch;
+
+        /**
+         * Ctor.
+         * @param connection Physical connection
+         * @param mark Savepoint its rollback goes back to
+         * @param epoch Number of resets when the savepoint was set
+         */
+        Shared(final Connection connection, final Savepoint mark, final long epoch) {
+            this.connection = connection;
+            this.mark = mark;
+            this.epoch = epoch;
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final Object result;
+            final String name = method.getName();
+            if ("close".equals(name) || "setAutoCommit".equals(name)) {
+                result = null;
+            } else if ("commit".equals(name)) {
+                this.commit();
+                result = null;
+            } else if ("rollback".equals(name) && args == null) {
+                this.rollback();
+                result = null;
+            } else if ("getAutoCommit".equals(name)) {
+                result = false;
+            } else if ("unwrap".equals(name)) {
+                if (!((Class<?>) args[0]).isInstance(proxy)) {
+                    throw new SQLException(
+                        String.format(
+                            "Connection can't be unwrapped to %s: it would bypass the rollback",
+                            args[0]
+                        )
+                    );
+                }
+                result = proxy;
+            } else if ("isWrapperFor".equals(name)) {
+                result = ((Class<?>) args[0]).isInstance(proxy);
+            } else if ("equals".equals(name)) {
+                result = proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                result = System.identityHashCode(proxy);
+            } else if (RollbackDataSource.OWNED.contains(name)) {
+                result = Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()},
+                    new Owned(
+                        new Invocation(this.connection, method, args).call(),
+                        (Connection) proxy
+                    )
+                );
+            } else {
+                result = new Invocation(this.connection, method, args).call();
+            }
+            return result;
+        }
+
+        /**
+         * Commit: later rollbacks go back to now.
+         * @throws SQLException If fails
+         */
+        private void commit() throws SQLException {
+            RollbackDataSource.this.lock.lock();
+            try {
+                this.mark = this.connection.setSavepoint();
+                this.epoch = RollbackDataSource.this.resets;
+            } finally {
+                RollbackDataSource.this.lock.unlock();
+            }
+        }
+
+        /**
+         * Roll back to the savepoint, or to the last reset if it came after.
+         * @throws SQLException If fails
+         */
+        private void rollback() throws SQLException {
+            RollbackDataSource.this.lock.lock();
+            try {
+                if (this.epoch != RollbackDataSource.this.resets) {
+                    this.mark = RollbackDataSource.this.base;
+                    this.epoch = RollbackDataSource.this.resets;
+                }
+                this.connection.rollback(this.mark);
+            } finally {
+                RollbackDataSource.this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Statement or metadata of a handed out connection.
+     * @since 0.2
+     */
+    private static final class Owned implements InvocationHandler {
+
+        /**
+         * Statement or metadata.
+         */
+        private final Object origin;
+
+        /**
+         * Handed out connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Ctor.
+         * @param origin Statement or metadata
+         * @param connection Handed out connection
+         */
+        Owned(final Object origin, final Connection connection) {
+            this.origin = origin;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(
+            final Object proxy, final Method method, final Object[] args
+        ) throws Throwable {
+            final Object result;
+            final String name = method.getName();
+            if ("getConnection".equals(name)) {
+                result = this.connection;
+            } else if ("equals".equals(name)) {
+                result = proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                result = System.identityHashCode(proxy);
+            } else {
+                result = new Invocation(this.origin, method, args).call();
+            }
+            return result;
+        }
+    }
+}
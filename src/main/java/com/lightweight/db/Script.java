@@ -0,0 +1,310 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import javax.sql.DataSource;
+
+/**
+ * SQL script.
+ * <p>It streams a script from a file or the classpath and runs its
+ * statements in one transaction, so that a large schema or fixture script
+ * is never fully loaded in memory. Statements are split as the dialect
+ * does. Each statement is timed, and the slowest ones are reported:
+ * <pre>{@code
+ * final ScriptReport report = new Script(source, Dialect.POSTGRESQL)
+ *     .run("classpath:fixtures/seed.sql");
+ * }</pre>
+ * <p>With batches of several statements, batches are timed instead.
+ * They save round trips to a database on a server, whereas an embedded
+ * database runs the statements of a batch one by one anyway. Queries
+ * can't be batched.
+ * @since 0.2
+ */
+public final class Script {
+
+    /**
+     * Prefix of a file on the classpath.
+     */
+    private static final String CLASSPATH = "classpath:";
+
+    /**
+     * Number of slowest statements reported.
+     */
+    private static final int SLOWEST = 10;
+
+    /**
+     * Longest statement reported, in characters.
+     */
+    private static final int WIDTH = 120;
+
+    /**
+     * Data source.
+     */
+    private final DataSource source;
+
+    /**
+     * Dialect.
+     */
+    private final Dialect dialect;
+
+    /**
+     * Number of statements per batch.
+     */
+    private final int batch;
+
+    /**
+     * Ctor.
+     * @param source Data source
+     */
+    public Script(final DataSource source) {
+        this(source, Dialect.H2);
+    }
+
+    /**
+     * Ctor.
+     * @param source Data source
+     * @param dialect Dialect of the script
+     */
+    public Script(final DataSource source, final Dialect dialect) {
+        this(source, dialect, 1);
+    }
+
+    /**
+     * Ctor.
+     * @param source Data source
+     * @param dialect Dialect of the script
+     * @param batch Number of statements per batch
+     */
+    public Script(final DataSource source, final Dialect dialect, final int batch) {
+        this.source = source;
+        this.dialect = dialect;
+        this.batch = batch;
+    }
+
+    /**
+     * Run a script file.
+     * @param file File name, prefixed with {@code classpath:} for a resource
+     * @return Report
+     * @throws IOException If the script can't be read
+     * @throws SQLException If a statement fails
+     */
+    public ScriptReport run(final String file) throws IOException, SQLException {
+        try (Reader reader = Script.open(file)) {
+            return this.run(reader);
+        }
+    }
+
+    /**
+     * Run a script.
+     * @param script Script, read as it runs
+     * @return Report
+     * @throws IOException If the script can't be read
+     * @throws SQLException If a statement fails
+     */
+    public ScriptReport run(final Reader script) throws IOException, SQLException {
+        final ScriptStatements statements = new ScriptStatements(
+            script, this.dialect
+        );
+        final Queue<Timed> slowest = new PriorityQueue<>(
+            Comparator.comparingLong(timed -> timed.nanos)
+        );
+        final List<String> pending = new ArrayList<>(this.batch);
+        final long start = System.nanoTime();
+        long count = 0L;
+        try (Connection connection = this.source.getConnection()) {
+            final boolean auto = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                String sql = statements.next();
+                while (sql != null) {
+                    pending.add(sql);
+                    count += 1L;
+                    if (pending.size() == this.batch) {
+                        Script.execute(stmt, pending, count, slowest);
+                    }
+                    sql = statements.next();
+                }
+                Script.execute(stmt, pending, count, slowest);
+                connection.commit();
+            } catch (final SQLException | IOException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(auto);
+            }
+        }
+        final List<Timed> sorted = new ArrayList<>(slowest);
+        sorted.sort(Comparator.comparingLong((Timed timed) -> timed.nanos).reversed());
+        final List<String> report = new ArrayList<>(sorted.size());
+        for (final Timed timed : sorted) {
+            report.add(timed.toString());
+        }
+        return new ScriptReport(
+            count, Duration.ofNanos(System.nanoTime() - start), report
+        );
+    }
+
+    /**
+     * Execute pending statements and keep their timing if among the slowest.
+     * @param stmt Statement
+     * @param pending Pending statements, emptied
+     * @param count Number of statements read so far
+     * @param slowest Slowest statements
+     * @throws SQLException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void execute(
+        final Statement stmt, final List<String> pending,
+        final long count, final Queue<Timed> slowest
+    ) throws SQLException {
+        if (!pending.isEmpty()) {
+            final Timed timed = new Timed(pending);
+            final long start = System.nanoTime();
+            try {
+                if (pending.size() == 1) {
+                    stmt.execute(pending.get(0));
+                } else {
+                    for (final String sql : pending) {
+                        stmt.addBatch(sql);
+                    }
+                    stmt.executeBatch();
+                }
+            } catch (final SQLException ex) {
+                throw new SQLException(
+                    String.format(
+                        "Statement #%d failed: %s",
+                        count - pending.size() + 1L, timed.label
+                    ),
+                    ex.getSQLState(), ex.getErrorCode(), ex
+                );
+            }
+            timed.nanos = System.nanoTime() - start;
+            pending.clear();
+            slowest.add(timed);
+            if (slowest.size() > Script.SLOWEST) {
+                slowest.poll();
+            }
+        }
+    }
+
+    /**
+     * Open a script file.
+     * @param file File name, prefixed with {@code classpath:} for a resource
+     * @return Reader
+     * @throws IOException If fails
+     */
+    private static Reader open(final String file) throws IOException {
+        final Reader reader;
+        if (file.startsWith(Script.CLASSPATH)) {
+            final String name = file.substring(Script.CLASSPATH.length());
+            final InputStream stream = Thread.currentThread()
+                .getContextClassLoader()
+                .getResourceAsStream(name);
+            if (stream == null) {
+                throw new FileNotFoundException(
+                    String.format("Script %s not found on the classpath", name)
+                );
+            }
+            reader = new BufferedReader(
+                new InputStreamReader(stream, StandardCharsets.UTF_8)
+            );
+        } else {
+            reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+        }
+        return reader;
+    }
+
+    /**
+     * Timed statements.
+     * @since 0.2
+     */
+    private static final class Timed {
+
+        /**
+         * Label of the statements.
+         */
+        private final String label;
+
+        /**
+         * Duration, in nanoseconds.
+         */
+        private long nanos;
+
+        /**
+         * Ctor.
+         * @param statements Statements
+         */
+        Timed(final List<String> statements) {
+            this.label = Timed.label(statements);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms: %s", this.nanos / 1_000_000L, this.label);
+        }
+
+        /**
+         * Label of statements.
+         * @param statements Statements
+         * @return The first statement, shortened, and how many follow it
+         */
+        private static String label(final List<String> statements) {
+            final String sql = statements.get(0).replaceAll("\\s+", " ");
+            final String head;
+            if (sql.length() > Script.WIDTH) {
+                head = String.format("%s...", sql.substring(0, Script.WIDTH));
+            } else {
+                head = sql;
+            }
+            final String label;
+            if (statements.size() > 1) {
+                label = String.format(
+                    "%s (+%d statement(s))", head, statements.size() - 1
+                );
+            } else {
+                label = head;
+            }
+            return label;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of a SQL script run.
+ * @since 0.2
+ */
+public final class ScriptReport {
+
+    /**
+     * Number of statements executed.
+     */
+    private final long statements;
+
+    /**
+     * Duration of the run.
+     */
+    private final Duration duration;
+
+    /**
+     * Slowest statements, or batches, the slowest first.
+     */
+    private final List<String> slowest;
+
+    /**
+     * Ctor.
+     * @param statements Number of statements executed
+     * @param duration Duration of the run
+     * @param slowest Slowest statements, the slowest first
+     */
+    public ScriptReport(
+        final long statements, final Duration duration, final List<String> slowest
+    ) {
+        this.statements = statements;
+        this.duration = duration;
+        this.slowest = Collections.unmodifiableList(slowest);
+    }
+
+    /**
+     * Number of statements executed.
+     * @return Number of statements
+     */
+    public long statements() {
+        return this.statements;
+    }
+
+    /**
+     * Duration of the run.
+     * @return Duration
+     */
+    public Duration duration() {
+        return this.duration;
+    }
+
+    /**
+     * Slowest statements, or batches of statements, with their duration.
+     * @return Statements, the slowest first
+     */
+    public List<String> slowest() {
+        return this.slowest;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder(
+            String.format(
+                "%d statement(s) in %d ms",
+                this.statements, this.duration.toMillis()
+            )
+        );
+        for (final String slow : this.slowest) {
+            report.append(System.lineSeparator()).append("  ").append(slow);
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Statements of a SQL script, read one at a time.
+ * <p>Only the statement being read is held in memory. Statements end with
+ * a semicolon, or a {@code GO} line for MS SQL Server. Semicolons within
+ * quotes, comments and dollar-quoted strings don't end a statement;
+ * comments are left out. MySQL escapes quotes with a backslash and quotes
+ * identifiers with backticks; PostgreSQL accepts tags between dollars and
+ * escapes quotes with a backslash in {@code E'...'} strings.
+ * @since 0.2
+ */
+final class ScriptStatements {
+
+    /**
+     * Longest tag of a dollar-quoted string.
+     */
+    private static final int TAG = 64;
+
+    /**
+     * End of the script.
+     */
+    private static final int END = -1;
+
+    /**
+     * Size of the buffer.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * Script.
+     */
+    private final Reader script;
+
+    /**
+     * Characters read ahead from the script.
+     */
+    private final char[] buffer;
+
+    /**
+     * Characters given back, the next one last.
+     */
+    private final StringBuilder unread;
+
+    /**
+     * Position of the next character in the buffer.
+     */
+    private int position;
+
+    /**
+     * Number of characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * Dialect.
+     */
+    private final Dialect dialect;
+
+    /**
+     * Ctor.
+     * @param script Script
+     * @param dialect Dialect
+     */
+    ScriptStatements(final Reader script, final Dialect dialect) {
+        this.script = script;
+        this.dialect = dialect;
+        this.buffer = new char[ScriptStatements.BUFFER];
+        this.unread = new StringBuilder(ScriptStatements.TAG + 1);
+    }
+
+    /**
+     * Next statement.
+     * @return Statement, or null at the end of the script
+     * @throws IOException If fails
+     */
+    String next() throws IOException {
+        final StringBuilder sql = new StringBuilder();
+        String statement = null;
+        int line = 0;
+        int chr = this.read();
+        while (statement == null && chr != ScriptStatements.END) {
+            if (chr == '\'' || chr == '"'
+                || chr == '`' && this.dialect == Dialect.MYSQL) {
+                this.quoted(sql, (char) chr, this.escapes(sql, (char) chr));
+            } else if (chr == '-' && this.follows('-')) {
+                this.skip("\n");
+                sql.append('\n');
+                chr = '\n';
+            } else if (chr == '/' && this.follows('*')) {
+                this.skip("*/");
+                sql.append(' ');
+            } else if (chr == '$') {
+                this.dollar(sql);
+            } else if (chr == ';') {
+                statement = ScriptStatements.statement(sql);
+                sql.setLength(0);
+            } else {
+                sql.append((char) chr);
+            }
+            if (chr == '\n') {
+                if (this.dialect == Dialect.MSSQLSERVER
+                    && "GO".equalsIgnoreCase(sql.substring(line).trim())) {
+                    sql.setLength(line);
+                    statement = ScriptStatements.statement(sql);
+                    sql.setLength(0);
+                }
+                line = sql.length();
+            }
+            if (statement == null) {
+                chr = this.read();
+            }
+        }
+        if (statement == null) {
+            if (this.dialect == Dialect.MSSQLSERVER
+                && "GO".equalsIgnoreCase(sql.substring(line).trim())) {
+                sql.setLength(line);
+            }
+            statement = ScriptStatements.statement(sql);
+        }
+        return statement;
+    }
+
+    /**
+     * If a backslash escapes the next character in a quoted string or
+     * identifier.
+     * @param sql Statement being read, up to the opening quote
+     * @param quote Quote
+     * @return True if it escapes
+     */
+    private boolean escapes(final StringBuilder sql, final char quote) {
+        final boolean escapes;
+        if (this.dialect == Dialect.MYSQL) {
+            escapes = true;
+        } else if (this.dialect == Dialect.POSTGRESQL && quote == '\'') {
+            final int prefix = sql.length() - 1;
+            escapes = prefix >= 0
+                && Character.toUpperCase(sql.charAt(prefix)) == 'E'
+                && (prefix == 0
+                || !Character.isLetterOrDigit(sql.charAt(prefix - 1))
+                && sql.charAt(prefix - 1) != '_');
+        } else {
+            escapes = false;
+        }
+        return escapes;
+    }
+
+    /**
+     * Copy a quoted string or identifier.
+     * <p>A doubled quote closes the string and opens it again at once.
+     * @param sql Statement being read
+     * @param quote Quote
+     * @param escaped If a backslash escapes the next character
+     * @throws IOException If fails
+     */
+    private void quoted(final StringBuilder sql, final char quote,
+        final boolean escaped) throws IOException {
+        sql.append(quote);
+        int chr = this.read();
+        while (chr != ScriptStatements.END && chr != quote) {
+            sql.append((char) chr);
+            if (chr == '\\' && escaped) {
+                chr = this.read();
+                if (chr != ScriptStatements.END) {
+                    sql.append((char) chr);
+                }
+            }
+            chr = this.read();
+        }
+        if (chr == quote) {
+            sql.append(quote);
+        }
+    }
+
+    /**
+     * Copy a dollar-quoted string, or a single dollar.
+     * @param sql Statement being read
+     * @throws IOException If fails
+     */
+    private void dollar(final StringBuilder sql) throws IOException {
+        final StringBuilder tag = new StringBuilder();
+        int chr = this.read();
+        while (chr != ScriptStatements.END && tag.length() < ScriptStatements.TAG
+            && (Character.isLetter(chr) || chr == '_'
+            || Character.isDigit(chr) && tag.length() > 0)) {
+            tag.append((char) chr);
+            chr = this.read();
+        }
+        if (chr == '$' && (tag.length() == 0 || this.dialect == Dialect.POSTGRESQL)) {
+            final String delimiter = String.format("$%s$", tag);
+            sql.append(delimiter);
+            final int start = sql.length();
+            chr = this.read();
+            while (chr != ScriptStatements.END
+                && !ScriptStatements.ends(sql, start, delimiter)) {
+                sql.append((char) chr);
+                if (!ScriptStatements.ends(sql, start, delimiter)) {
+                    chr = this.read();
+                }
+            }
+        } else {
+            if (chr != ScriptStatements.END) {
+                this.unread.append((char) chr);
+            }
+            this.unread.append(tag.reverse());
+            sql.append('$');
+        }
+    }
+
+    /**
+     * Skip the script until a delimiter, included.
+     * @param delimiter Delimiter
+     * @throws IOException If fails
+     */
+    private void skip(final String delimiter) throws IOException {
+        int matched = 0;
+        int chr = this.read();
+        while (chr != ScriptStatements.END && matched < delimiter.length()) {
+            if (chr == delimiter.charAt(matched)) {
+                matched += 1;
+            } else if (chr == delimiter.charAt(0)) {
+                matched = 1;
+            } else {
+                matched = 0;
+            }
+            if (matched < delimiter.length()) {
+                chr = this.read();
+            }
+        }
+    }
+
+    /**
+     * Read a character if it's the expected one.
+     * @param expected Expected character
+     * @return True if it was read
+     * @throws IOException If fails
+     */
+    private boolean follows(final char expected) throws IOException {
+        final int chr = this.read();
+        final boolean follows = chr == expected;
+        if (!follows && chr != ScriptStatements.END) {
+            this.unread.append((char) chr);
+        }
+        return follows;
+    }
+
+    /**
+     * Read a character.
+     * <p>The script is read by blocks, we don't lock a reader for each
+     * character.
+     * @return Character, or {@link #END} at the end of the script
+     * @throws IOException If fails
+     */
+    private int read() throws IOException {
+        final int chr;
+        final int given = this.unread.length();
+        if (given > 0) {
+            chr = this.unread.charAt(given - 1);
+            this.unread.setLength(given - 1);
+        } else {
+            if (this.position == this.limit && this.limit != ScriptStatements.END) {
+                this.limit = this.script.read(this.buffer);
+                this.position = 0;
+            }
+            if (this.limit == ScriptStatements.END) {
+                chr = ScriptStatements.END;
+            } else {
+                chr = this.buffer[this.position];
+                this.position += 1;
+            }
+        }
+        return chr;
+    }
+
+    /**
+     * If a dollar-quoted string ends with its delimiter.
+     * @param sql Statement being read
+     * @param start Start of the content of the string
+     * @param delimiter Delimiter
+     * @return True if it ends
+     */
+    private static boolean ends(
+        final StringBuilder sql, final int start, final String delimiter
+    ) {
+        final int from = sql.length() - delimiter.length();
+        return from >= start && sql.indexOf(delimiter, from) == from;
+    }
+
+    /**
+     * Statement read, if not blank.
+     * @param sql Statement being read
+     * @return Statement, or null if blank
+     */
+    private static String statement(final StringBuilder sql) {
+        final String statement = sql.toString().trim();
+        final String result;
+        if (statement.isEmpty()) {
+            result = null;
+        } else {
+            result = statement;
+        }
+        return result;
+    }
+}
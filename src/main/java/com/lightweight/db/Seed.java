@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Seed of a database.
+ * <p>It loads fixture rows into a table with batched prepared statements,
+ * or a CSV file with H2 {@code CSVREAD}, in one transaction per load.
+ * <pre>{@code
+ * final Seed seed = new Seed(source);
+ * seed.rows("item", Arrays.asList("id", "name"), rows);
+ * seed.csv("account", "classpath:fixtures/accounts.csv");
+ * }</pre>
+ * @see <a href="http://h2database.com/html/functions.html#csvread">H2 - CSVREAD</a>
+ * @since 0.2
+ */
+public final class Seed {
+
+    /**
+     * Default number of rows per batch.
+     */
+    private static final int DEFAULT_BATCH = 1_000;
+
+    /**
+     * Data source.
+     */
+    private final DataSource source;
+
+    /**
+     * Number of rows per batch.
+     */
+    private final int batch;
+
+    /**
+     * Ctor.
+     * @param source Data source
+     */
+    public Seed(final DataSource source) {
+        this(source, Seed.DEFAULT_BATCH);
+    }
+
+    /**
+     * Ctor.
+     * @param source Data source
+     * @param batch Number of rows per batch
+     */
+    public Seed(final DataSource source, final int batch) {
+        this.source = source;
+        this.batch = batch;
+    }
+
+    /**
+     * Load rows into a table.
+     * @param table Table
+     * @param columns Columns, in the order of the values of a row
+     * @param rows Rows
+     * @return Number of rows loaded
+     * @throws SQLException If fails
+     */
+    public long rows(
+        final String table, final List<String> columns,
+        final Iterable<Object[]> rows
+    ) throws SQLException {
+        final List<String> marks = new ArrayList<>(columns.size());
+        for (int idx = 0; idx < columns.size(); ++idx) {
+            marks.add("?");
+        }
+        long count = 0L;
+        try (Connection connection = this.source.getConnection()) {
+            final boolean auto = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (
+                PreparedStatement insert = connection.prepareStatement(
+                    String.format(
+                        "INSERT INTO %s (%s) VALUES (%s)",
+                        table,
+                        String.join(", ", columns),
+                        String.join(", ", marks)
+                    )
+                )
+            ) {
+                for (final Object[] row : rows) {
+                    for (int idx = 0; idx < row.length; ++idx) {
+                        insert.setObject(idx + 1, row[idx]);
+                    }
+                    insert.addBatch();
+                    count += 1L;
+                    if (count % this.batch == 0L) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (final SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(auto);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Load a CSV file into a table.
+     * <p>The first line of the file names the columns to fill.
+     * @param table Table
+     * @param file File name, prefixed with {@code classpath:} for a resource
+     * @return Number of rows loaded
+     * @throws SQLException If fails
+     */
+    public long csv(final String table, final String file) throws SQLException {
+        final long count;
+        try (Connection connection = this.source.getConnection()) {
+            final boolean auto = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement insert = connection.createStatement()) {
+                count = insert.executeLargeUpdate(
+                    String.format(
+                        "INSERT INTO %s (%s) SELECT * FROM %s",
+                        table,
+                        String.join(", ", Seed.header(connection, file)),
+                        Seed.read(file)
+                    )
+                );
+                connection.commit();
+            } catch (final SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(auto);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Columns named in the header of a CSV file.
+     * @param connection Connection
+     * @param file File name
+     * @return Columns
+     * @throws SQLException If fails
+     */
+    private static List<String> header(
+        final Connection connection, final String file
+    ) throws SQLException {
+        try (
+            Statement select = connection.createStatement();
+            ResultSet rset = select.executeQuery(
+                String.format("SELECT * FROM %s WHERE FALSE", Seed.read(file))
+            )
+        ) {
+            final ResultSetMetaData meta = rset.getMetaData();
+            final List<String> columns = new ArrayList<>(meta.getColumnCount());
+            for (int idx = 1; idx <= meta.getColumnCount(); ++idx) {
+                columns.add(meta.getColumnLabel(idx));
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * Call of CSVREAD on a file.
+     * <p>The file name must be a literal, since H2 reads the header of the
+     * file when it prepares the statement.
+     * @param file File name
+     * @return SQL
+     */
+    private static String read(final String file) {
+        return String.format("CSVREAD('%s')", file.replace("'", "''"));
+    }
+}
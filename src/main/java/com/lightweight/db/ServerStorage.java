@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.function.Supplier;
+
+/**
+ * Storage on an H2 TCP server shared by the JVMs of a test run.
+ * <p>Databases of the origin storage live in a single server process,
+ * started by the first JVM that needs it, so that Surefire forks reuse
+ * one warmed engine instead of each starting its own. Each fork still gets
+ * its own databases: names are qualified with the process id of the JVM
+ * on the server, so forks opening the same name don't share it. Only
+ * in-memory origins are served. The url carries the secret of the server,
+ * read from its key file, and the server is started when the first
+ * database is opened, not when the url is built. The port
+ * is, by default, given by the system property {@code lightweight.db.port},
+ * else by the environment variable {@code LIGHTWEIGHT_DB_PORT}, else 9123.
+ * @see SharedServer
+ * @since 0.2
+ */
+public final class ServerStorage implements Storage {
+
+    /**
+     * System property of the port.
+     */
+    private static final String PROPERTY = "lightweight.db.port";
+
+    /**
+     * Environment variable of the port.
+     */
+    private static final String VARIABLE = "LIGHTWEIGHT_DB_PORT";
+
+    /**
+     * Default port.
+     */
+    private static final String PORT = "9123";
+
+    /**
+     * Prefix of embedded urls.
+     */
+    private static final String EMBEDDED = "jdbc:h2:";
+
+    /**
+     * Origin.
+     */
+    private final Storage origin;
+
+    /**
+     * Port.
+     */
+    private final int port;
+
+    /**
+     * Secret of the server.
+     */
+    private final Supplier<String> secret;
+
+    /**
+     * Ctor.
+     */
+    public ServerStorage() {
+        this(new InMemoryStorage());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Storage of the databases on the server
+     */
+    public ServerStorage(final Storage origin) {
+        this(
+            origin,
+            Integer.parseInt(
+                System.getProperty(
+                    ServerStorage.PROPERTY,
+                    System.getenv().getOrDefault(
+                        ServerStorage.VARIABLE, ServerStorage.PORT
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Storage of the databases on the server
+     * @param port Port of the server
+     */
+    public ServerStorage(final Storage origin, final int port) {
+        this(origin, port, SharedServer::secret);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Storage of the databases on the server
+     * @param port Port of the server
+     * @param secret Secret of the server, read when a url is built
+     */
+    ServerStorage(
+        final Storage origin, final int port, final Supplier<String> secret
+    ) {
+        this.origin = origin;
+        this.port = port;
+        this.secret = secret;
+    }
+
+    @Override
+    public String url(final String dbname) {
+        return String.format(
+            "jdbc:h2:tcp://localhost:%d/%s;USER=%s;PASSWORD=%s",
+            this.port,
+            this.origin.url(
+                String.format("%s_%s", dbname, RandomDatabaseName.PID)
+            ).substring(ServerStorage.EMBEDDED.length()),
+            SharedServer.USER,
+            this.secret.get()
+        );
+    }
+}
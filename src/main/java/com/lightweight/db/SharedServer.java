@@ -0,0 +1,514 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.h2.tools.Server;
+
+/**
+ * H2 TCP server shared by the JVMs of a test run.
+ * <p>The first JVM that needs it starts the server in a process of its own,
+ * so that it outlives the JVM, even a Surefire fork that ends before the
+ * others. Each JVM holds a connection on a registry database of the
+ * server for its whole life; the server stops by itself once no JVM has
+ * been connected for a while.
+ * <p>The server is locked down: it only listens on the loopback interface,
+ * doesn't let clients create databases and only serves the in-memory
+ * databases that JVMs opened through the registry. Every database,
+ * registry included, requires the secret kept in an owner-only key file
+ * of the user home, so that other users of the machine can't run code in
+ * the server.
+ * @since 0.2
+ */
+public final class SharedServer {
+
+    /**
+     * User of the databases of the server.
+     */
+    static final String USER = "lightweight";
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        SharedServer.class.getName()
+    );
+
+    /**
+     * Registry database.
+     */
+    private static final String REGISTRY = "mem:lightweight_forks";
+
+    /**
+     * Urls of the databases served by a shared server, with the port
+     * and the database.
+     */
+    private static final Pattern SERVED = Pattern.compile(
+        "jdbc:h2:tcp://localhost:(\\d+)/(.+;USER=lightweight;.*)",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Credentials in a url.
+     */
+    private static final Pattern CREDENTIALS = Pattern.compile(
+        ";(USER|PASSWORD)=[^;]*", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Databases the server may open.
+     */
+    private static final Pattern IN_MEMORY = Pattern.compile(
+        "(mem|nioMemFS|nioMemLZF):[\\w-]+(;.*)?"
+    );
+
+    /**
+     * Delay to wait for the server to start, in milliseconds.
+     */
+    private static final long STARTUP = 10_000L;
+
+    /**
+     * Delay without any JVM connected before the server stops, in seconds.
+     */
+    private static final long GRACE = 10L;
+
+    /**
+     * Connections on the registry, by port.
+     */
+    private static final Map<Integer, Connection> LEASES =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Databases opened by the server, by url.
+     */
+    private static final Map<String, Held> HELD = new ConcurrentHashMap<>();
+
+    /**
+     * Lock of the databases opened by the server.
+     */
+    private static final Lock LOCK = new ReentrantLock();
+
+    /**
+     * Secret of the server.
+     */
+    private static final AtomicReference<String> SECRET =
+        new AtomicReference<>("");
+
+    /**
+     * Ctor.
+     */
+    private SharedServer() {
+        // Utility class
+    }
+
+    /**
+     * Start the server on a port.
+     * <p>It's the entry point of the server process.
+     * @param args Port
+     * @throws Exception If fails
+     * @checkstyle ProhibitPublicStaticMethods (3 lines)
+     */
+    public static void main(final String... args) throws Exception {
+        SharedServer.SECRET.set(SharedServer.secret());
+        final Path base = SharedServer.home().resolve("server");
+        Files.createDirectories(base);
+        final Server server;
+        try {
+            server = Server.createTcpServer(
+                "-tcpPort", args[0],
+                "-tcpPassword", SharedServer.SECRET.get(),
+                "-baseDir", base.toString()
+            ).start();
+        } catch (final SQLException ex) {
+            return;
+        }
+        try (
+            Connection connection = DriverManager.getConnection(
+                String.format("jdbc:h2:%s", SharedServer.REGISTRY),
+                SharedServer.USER, SharedServer.SECRET.get()
+            );
+            Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute(
+                String.format(
+                    "CREATE ALIAS LIGHTWEIGHT_OPEN FOR '%s.open'",
+                    SharedServer.class.getName()
+                )
+            );
+            long idle = 0L;
+            while (idle < SharedServer.GRACE) {
+                TimeUnit.SECONDS.sleep(1L);
+                SharedServer.sweep();
+                if (SharedServer.sessions(connection) > 1) {
+                    idle = 0L;
+                } else {
+                    idle += 1L;
+                }
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Open a database on the server.
+     * <p>It's called by the JVMs, through the registry, before they connect
+     * to a database: the server doesn't let them create it themselves.
+     * @param database Database, with its settings
+     * @throws SQLException If fails
+     * @checkstyle ProhibitPublicStaticMethods (3 lines)
+     */
+    public static void open(final String database) throws SQLException {
+        if (!SharedServer.IN_MEMORY.matcher(database).matches()) {
+            throw new SQLException(
+                String.format("Only in-memory databases are served: %s", database)
+            );
+        }
+        SharedServer.LOCK.lock();
+        try {
+            Held held = SharedServer.HELD.get(database);
+            if (held == null) {
+                held = new Held(
+                    DriverManager.getConnection(
+                        String.format("jdbc:h2:%s", database),
+                        SharedServer.USER, SharedServer.SECRET.get()
+                    )
+                );
+                SharedServer.HELD.put(database, held);
+            }
+            held.renew();
+        } finally {
+            SharedServer.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Prepare the database of a url, if it's served by a shared server.
+     * <p>It attaches this JVM to the server, starting the server if needed,
+     * and has the server open the database.
+     * @param url Url
+     * @throws SQLException If fails
+     */
+    static void prepare(final String url) throws SQLException {
+        final Matcher matcher = SharedServer.SERVED.matcher(url);
+        if (matcher.matches()) {
+            final Connection lease = SharedServer.LEASES.computeIfAbsent(
+                Integer.parseInt(matcher.group(1)), SharedServer::lease
+            );
+            try (
+                PreparedStatement stmt = lease.prepareStatement(
+                    "CALL LIGHTWEIGHT_OPEN(?)"
+                )
+            ) {
+                stmt.setString(
+                    1, SharedServer.CREDENTIALS.matcher(matcher.group(2)).replaceAll("")
+                );
+                stmt.execute();
+            }
+        }
+    }
+
+    /**
+     * Secret of the servers.
+     * <p>It's kept in a key file of the user home, readable by its owner
+     * only, and created by the first JVM that needs it.
+     * @return Secret
+     */
+    static String secret() {
+        final Path key = SharedServer.home().resolve("server.key");
+        try {
+            if (!Files.exists(key)) {
+                SharedServer.create(key);
+            }
+            return new String(
+                Files.readAllBytes(key), StandardCharsets.US_ASCII
+            ).trim();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                String.format("Key of the H2 server could not be read: %s", key),
+                ex
+            );
+        }
+    }
+
+    /**
+     * Close the databases no JVM uses anymore.
+     * <p>A database is closed once the JVM that opened it has connected
+     * then disconnected, or if it never connected.
+     * @throws SQLException If fails
+     */
+    private static void sweep() throws SQLException {
+        SharedServer.LOCK.lock();
+        try {
+            final Iterator<Held> held = SharedServer.HELD.values().iterator();
+            while (held.hasNext()) {
+                final Held database = held.next();
+                if (database.unused()) {
+                    held.remove();
+                    database.close();
+                }
+            }
+        } finally {
+            SharedServer.LOCK.unlock();
+        }
+    }
+
+    /**
+     * Number of sessions on the database of a connection.
+     * @param connection Connection
+     * @return Number of sessions
+     * @throws SQLException If fails
+     */
+    private static int sessions(final Connection connection) throws SQLException {
+        try (
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS"
+            )
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Lease the server on a port.
+     * @param port Port
+     * @return Connection on the registry, held until the JVM exits
+     */
+    private static Connection lease(final int port) {
+        final String url = String.format(
+            "jdbc:h2:tcp://localhost:%d/%s;IFEXISTS=TRUE",
+            port, SharedServer.REGISTRY
+        );
+        try {
+            Connection connection = SharedServer.connect(url);
+            if (connection == null) {
+                SharedServer.spawn(port);
+                final long deadline = System.currentTimeMillis()
+                    + SharedServer.STARTUP;
+                while (connection == null
+                    && System.currentTimeMillis() < deadline) {
+                    TimeUnit.MILLISECONDS.sleep(100L);
+                    connection = SharedServer.connect(url);
+                }
+            }
+            if (connection == null) {
+                throw new IllegalStateException(
+                    String.format("H2 server could not be started on port %d", port)
+                );
+            }
+            return connection;
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Connect to the registry.
+     * @param url Url of the registry
+     * @return Connection or null if the server is not running
+     */
+    private static Connection connect(final String url) {
+        Connection connection;
+        try {
+            connection = DriverManager.getConnection(
+                url, SharedServer.USER, SharedServer.secret()
+            );
+        } catch (final SQLException ex) {
+            connection = null;
+        }
+        return connection;
+    }
+
+    /**
+     * Start the server in a new process.
+     * @param port Port
+     * @throws IOException If fails
+     */
+    private static void spawn(final int port) throws IOException {
+        final File log = new File(
+            System.getProperty("java.io.tmpdir"), "lightweight-db-server.log"
+        );
+        new ProcessBuilder(
+            new File(new File(System.getProperty("java.home"), "bin"), "java")
+                .getAbsolutePath(),
+            "-cp",
+            System.getProperty("java.class.path"),
+            SharedServer.class.getName(),
+            String.valueOf(port)
+        ).redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+            .start();
+    }
+
+    /**
+     * Create a key file.
+     * <p>The key is written aside, then linked in place, so that nobody
+     * reads a partial key. Unlike a move, a link never replaces a key that
+     * another JVM created meanwhile: its key is kept and read instead.
+     * @param key Key file
+     * @throws IOException If fails
+     */
+    private static void create(final Path key) throws IOException {
+        final Path dir = key.getParent();
+        final boolean posix = dir.getFileSystem()
+            .supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            Files.createDirectories(
+                dir,
+                PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rwx------")
+                )
+            );
+        } else {
+            Files.createDirectories(dir);
+        }
+        final FileAttribute<?>[] attributes;
+        if (posix) {
+            attributes = new FileAttribute<?>[]{
+                PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")
+                ),
+            };
+        } else {
+            attributes = new FileAttribute<?>[0];
+        }
+        final Path temp = Files.createTempFile(dir, "server", ".key", attributes);
+        final byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        Files.write(
+            temp,
+            Base64.getUrlEncoder().withoutPadding().encode(secret)
+        );
+        try {
+            Files.createLink(key, temp);
+        } catch (final FileAlreadyExistsException ex) {
+            SharedServer.LOGGER.log(
+                Level.FINE, "Key of the H2 server created by another JVM", ex
+            );
+        } finally {
+            Files.delete(temp);
+        }
+    }
+
+    /**
+     * Directory of the keys and databases of the servers.
+     * @return Directory
+     */
+    private static Path home() {
+        return Paths.get(System.getProperty("user.home"), ".lightweight-db");
+    }
+
+    /**
+     * Database opened by the server for a JVM.
+     * @since 0.2
+     */
+    private static final class Held implements AutoCloseable {
+
+        /**
+         * Connection keeping the database open.
+         */
+        private final Connection connection;
+
+        /**
+         * If the JVM has connected since the database was opened.
+         */
+        private boolean seen;
+
+        /**
+         * Seconds since the database was opened.
+         */
+        private long age;
+
+        /**
+         * Ctor.
+         * @param connection Connection keeping the database open
+         */
+        Held(final Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * The database is opened again.
+         */
+        void renew() {
+            this.seen = false;
+            this.age = 0L;
+        }
+
+        /**
+         * Check, once a second, if the database is not used anymore.
+         * @return True if no JVM uses it
+         * @throws SQLException If fails
+         */
+        boolean unused() throws SQLException {
+            final boolean unused;
+            if (SharedServer.sessions(this.connection) > 1) {
+                this.seen = true;
+                unused = false;
+            } else {
+                this.age += 1L;
+                unused = this.seen || this.age > SharedServer.GRACE;
+            }
+            return unused;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.connection.close();
+        }
+    }
+}
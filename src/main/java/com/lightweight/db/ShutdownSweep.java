@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sweep of the databases on JVM exit.
+ * <p>It remembers the databases created in the JVM that are not closed yet
+ * and closes them in a shutdown hook, so that no database file is left
+ * behind.
+ * @since 0.2
+ */
+final class ShutdownSweep {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        ShutdownSweep.class.getName()
+    );
+
+    /**
+     * Databases not closed yet.
+     */
+    private static final Set<AutoCloseable> OPENED =
+        ConcurrentHashMap.newKeySet();
+
+    /**
+     * If the shutdown hook is installed.
+     */
+    private static final AtomicBoolean HOOKED = new AtomicBoolean(false);
+
+    /**
+     * Ctor.
+     */
+    private ShutdownSweep() {
+        // Utility class
+    }
+
+    /**
+     * Remember a database to close on JVM exit.
+     * @param database Database
+     */
+    static void remember(final AutoCloseable database) {
+        if (ShutdownSweep.HOOKED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(
+                new Thread(ShutdownSweep::sweep, "lightweight-db-sweep")
+            );
+        }
+        ShutdownSweep.OPENED.add(database);
+    }
+
+    /**
+     * Forget a closed database.
+     * @param database Database
+     */
+    static void forget(final AutoCloseable database) {
+        ShutdownSweep.OPENED.remove(database);
+    }
+
+    /**
+     * Close all databases not closed yet.
+     * @checkstyle IllegalCatchCheck (15 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static void sweep() {
+        for (final AutoCloseable database : ShutdownSweep.OPENED) {
+            try {
+                database.close();
+            } catch (final Exception ex) {
+                ShutdownSweep.LOGGER.log(
+                    Level.FINE, "Database could not be swept", ex
+                );
+            }
+        }
+    }
+}
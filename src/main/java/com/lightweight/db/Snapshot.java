@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+/**
+ * Snapshot of a database.
+ * <p>It captures once, with H2 {@code SCRIPT}, the schema and the data of a
+ * golden database (for example, one migrated with Liquibase) and replays
+ * them into fresh databases. So migrations are paid once per JVM rather
+ * than once per test class. The golden database must use the same
+ * compatibility mode as the databases it is restored into.
+ * @see <a href="http://h2database.com/html/commands.html#script">H2 - SCRIPT</a>
+ * @since 0.2
+ */
+public final class Snapshot {
+
+    /**
+     * Golden database.
+     */
+    private final DataSource golden;
+
+    /**
+     * Statements of the script, empty until captured.
+     */
+    private final List<String> script;
+
+    /**
+     * Lock of the capture.
+     */
+    private final Lock lock;
+
+    /**
+     * If it has been captured.
+     */
+    private volatile boolean captured;
+
+    /**
+     * Ctor.
+     * @param golden Golden database
+     */
+    public Snapshot(final DataSource golden) {
+        this.golden = golden;
+        this.script = new ArrayList<>(0);
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * Restore the snapshot into a database.
+     * @param target Fresh database
+     * @throws SQLException If fails
+     */
+    public void restore(final DataSource target) throws SQLException {
+        final List<String> statements = this.statements();
+        try (Connection connection = target.getConnection()) {
+            final boolean auto = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement stmt = connection.createStatement()) {
+                for (final String sql : statements) {
+                    stmt.addBatch(sql);
+                }
+                stmt.executeBatch();
+                connection.commit();
+            } catch (final SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(auto);
+            }
+        }
+    }
+
+    /**
+     * Statements of the script.
+     * <p>The golden database is scripted on the first call only.
+     * @return Statements
+     * @throws SQLException If fails
+     */
+    private List<String> statements() throws SQLException {
+        if (!this.captured) {
+            this.lock.lock();
+            try {
+                if (!this.captured) {
+                    try (
+                        Connection connection = this.golden.getConnection();
+                        Statement stmt = connection.createStatement();
+                        ResultSet rset = stmt.executeQuery("SCRIPT NOPASSWORDS")
+                    ) {
+                        while (rset.next()) {
+                            this.script.add(rset.getString(1));
+                        }
+                    }
+                    this.captured = true;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return Collections.unmodifiableList(this.script);
+    }
+}
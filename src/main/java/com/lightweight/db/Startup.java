@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.time.Duration;
+
+/**
+ * Report of the startup of an embedded database.
+ * @since 0.2
+ */
+public final class Startup {
+
+    /**
+     * Time to load the H2 engine, zero if it was already loaded.
+     */
+    private final Duration driver;
+
+    /**
+     * Time to open the database.
+     */
+    private final Duration open;
+
+    /**
+     * Time to run the initialization SQL.
+     */
+    private final Duration init;
+
+    /**
+     * Ctor.
+     * @param driver Time to load the H2 engine
+     * @param open Time to open the database
+     * @param init Time to run the initialization SQL
+     */
+    public Startup(final Duration driver, final Duration open, final Duration init) {
+        this.driver = driver;
+        this.open = open;
+        this.init = init;
+    }
+
+    /**
+     * Time to load the H2 engine.
+     * <p>Only the first database of the JVM pays it.
+     * @return Duration, zero if the engine was already loaded
+     */
+    public Duration driver() {
+        return this.driver;
+    }
+
+    /**
+     * Time to open the database.
+     * @return Duration
+     */
+    public Duration open() {
+        return this.open;
+    }
+
+    /**
+     * Time to run the initialization SQL.
+     * @return Duration
+     */
+    public Duration init() {
+        return this.init;
+    }
+
+    /**
+     * Time of the whole startup.
+     * @return Duration
+     */
+    public Duration total() {
+        return this.driver.plus(this.open).plus(this.init);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "startup %d ms: driver load %d ms, database open %d ms, init SQL %d ms",
+            this.total().toMillis(),
+            this.driver.toMillis(),
+            this.open.toMillis(),
+            this.init.toMillis()
+        );
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the statistics of a data source.
+ * @since 0.2
+ */
+public final class Statistics implements StatisticsMXBean {
+
+    /**
+     * Nanoseconds in a millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * Number of connections opened.
+     */
+    private final long opened;
+
+    /**
+     * Number of connections not closed yet.
+     */
+    private final long outstanding;
+
+    /**
+     * Duration of the initialization, in nanoseconds.
+     */
+    private final long initialization;
+
+    /**
+     * Number of statements executed.
+     */
+    private final long executed;
+
+    /**
+     * Duration of the statements, in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Latency histogram.
+     */
+    private final long[] histogram;
+
+    /**
+     * Slowest statements.
+     */
+    private final String[] slowest;
+
+    /**
+     * Ctor.
+     * @param opened Number of connections opened
+     * @param outstanding Number of connections not closed yet
+     * @param initialization Duration of the initialization, in nanoseconds
+     * @param executed Number of statements executed
+     * @param nanos Duration of the statements, in nanoseconds
+     * @param histogram Latency histogram
+     * @param slowest Slowest statements
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Statistics(
+        final long opened, final long outstanding, final long initialization,
+        final long executed, final long nanos, final long[] histogram,
+        final String... slowest
+    ) {
+        this.opened = opened;
+        this.outstanding = outstanding;
+        this.initialization = initialization;
+        this.executed = executed;
+        this.nanos = nanos;
+        this.histogram = Arrays.copyOf(histogram, histogram.length);
+        this.slowest = Arrays.copyOf(slowest, slowest.length);
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return this.opened;
+    }
+
+    @Override
+    public long getConnectionsOutstanding() {
+        return this.outstanding;
+    }
+
+    @Override
+    public long getInitializationNanos() {
+        return this.initialization;
+    }
+
+    @Override
+    public long getStatementsExecuted() {
+        return this.executed;
+    }
+
+    @Override
+    public long getStatementsNanos() {
+        return this.nanos;
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return Arrays.copyOf(this.histogram, this.histogram.length);
+    }
+
+    @Override
+    public String[] getSlowestStatements() {
+        return Arrays.copyOf(this.slowest, this.slowest.length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            String.join(
+                "%n",
+                "Connections opened: %d, outstanding: %d",
+                "Initialization: %d ms",
+                "Statements executed: %d in %d ms",
+                "Latency histogram (us, powers of 2): %s",
+                "Slowest statements:%s"
+            ),
+            this.opened,
+            this.outstanding,
+            this.initialization / Statistics.NANOS_PER_MILLI,
+            this.executed,
+            this.nanos / Statistics.NANOS_PER_MILLI,
+            Arrays.toString(this.histogram),
+            Arrays.stream(this.slowest)
+                .map(stmt -> String.format("%n  %s", stmt))
+                .reduce("", String::concat)
+        );
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+/**
+ * Statistics of a data source, as exposed through JMX.
+ * @since 0.2
+ */
+public interface StatisticsMXBean {
+
+    /**
+     * Number of connections opened.
+     * @return Number of connections
+     */
+    long getConnectionsOpened();
+
+    /**
+     * Number of connections not closed yet.
+     * @return Number of connections
+     */
+    long getConnectionsOutstanding();
+
+    /**
+     * Duration of the first connection, initialization of the database
+     * included.
+     * @return Duration in nanoseconds
+     */
+    long getInitializationNanos();
+
+    /**
+     * Number of statements executed.
+     * @return Number of statements
+     */
+    long getStatementsExecuted();
+
+    /**
+     * Total duration of the statements executed.
+     * @return Duration in nanoseconds
+     */
+    long getStatementsNanos();
+
+    /**
+     * Histogram of the latencies of the statements.
+     * <p>The bucket {@code i} counts statements that took less than
+     * {@code 2^i} microseconds and at least {@code 2^(i-1)} microseconds.
+     * @return Counts per bucket
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * Slowest statements, the slowest first.
+     * @return Duration and SQL of each statement
+     */
+    String[] getSlowestStatements();
+}
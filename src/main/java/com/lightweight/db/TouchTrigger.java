@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.h2.api.Trigger;
+
+/**
+ * Trigger that records the tables written since the last reset.
+ * <p>It's installed by the data sources on each table when they reset
+ * their database: H2 instantiates it, that's why it's public.
+ * <p>Tables are recorded in the JVM where the trigger fires, which is the
+ * server for a {@link ServerStorage}. So they are taken through an alias
+ * of the database, that runs in that JVM too.
+ * @since 0.2
+ */
+public final class TouchTrigger implements Trigger {
+
+    /**
+     * Tables written, by database.
+     */
+    private static final Map<String, Set<String>> TOUCHED =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Database.
+     */
+    private String database;
+
+    /**
+     * Quoted name of the table.
+     */
+    private String table;
+
+    @Override
+    public void init(
+        final Connection connection, final String schema,
+        final String trigger, final String name,
+        final boolean before, final int type
+    ) throws SQLException {
+        this.database = TouchTrigger.database(connection);
+        this.table = TouchTrigger.quoted(schema, name);
+    }
+
+    @Override
+    public void fire(
+        final Connection connection, final Object[] old, final Object[] row
+    ) {
+        TouchTrigger.TOUCHED.computeIfAbsent(
+            this.database, key -> ConcurrentHashMap.newKeySet()
+        ).add(this.table);
+    }
+
+    /**
+     * Take the tables written in the database of a connection since the
+     * last call.
+     * @param connection Connection
+     * @return Quoted names of the tables
+     * @throws SQLException If fails
+     */
+    static Set<String> drain(final Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(
+                String.format(
+                    "CREATE ALIAS IF NOT EXISTS LIGHTWEIGHT_TOUCHED FOR '%s.touched'",
+                    TouchTrigger.class.getName()
+                )
+            );
+            try (ResultSet rs = stmt.executeQuery("CALL LIGHTWEIGHT_TOUCHED()")) {
+                rs.next();
+                final Array tables = rs.getArray(1);
+                try {
+                    final Set<String> drained = new HashSet<>();
+                    for (final Object table : (Object[]) tables.getArray()) {
+                        drained.add((String) table);
+                    }
+                    return drained;
+                } finally {
+                    tables.free();
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the tables written in the database of a connection since the
+     * last call, in the JVM of the database.
+     * <p>It's called by H2 through the alias {@code LIGHTWEIGHT_TOUCHED},
+     * that's why it's public.
+     * @param connection Connection, given by H2
+     * @return Quoted names of the tables
+     * @throws SQLException If fails
+     */
+    public static String[] touched(final Connection connection) throws SQLException {
+        final Set<String> tables = TouchTrigger.TOUCHED.remove(
+            TouchTrigger.database(connection)
+        );
+        final Set<String> drained;
+        if (tables == null) {
+            drained = Collections.emptySet();
+        } else {
+            drained = tables;
+        }
+        return drained.toArray(new String[0]);
+    }
+
+    /**
+     * Database of a connection.
+     * @param connection Connection
+     * @return Path of a file database, else its name
+     * @throws SQLException If fails
+     */
+    static String database(final Connection connection) throws SQLException {
+        try (
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                "SELECT COALESCE(DATABASE_PATH(), DATABASE())"
+            )
+        ) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /**
+     * Quoted name of a table.
+     * @param schema Schema
+     * @param name Name
+     * @return Quoted name
+     */
+    static String quoted(final String schema, final String name) {
+        return String.format(
+            "\"%s\".\"%s\"",
+            schema.replace("\"", "\"\""),
+            name.replace("\"", "\"\"")
+        );
+    }
+}
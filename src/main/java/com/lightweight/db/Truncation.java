@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Truncation of the tables written since the last reset.
+ * <p>Tables that are not watched yet by a {@link TouchTrigger} are
+ * truncated, then watched. The schema is kept, referential integrity is
+ * disabled during the truncation and sequences are restarted.
+ * @since 0.2
+ */
+final class Truncation {
+
+    /**
+     * Connection.
+     */
+    private final Connection connection;
+
+    /**
+     * Ctor.
+     * @param connection Connection
+     */
+    Truncation(final Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Truncate.
+     * @return Number of tables truncated
+     * @throws SQLException If fails
+     */
+    int run() throws SQLException {
+        final Set<String> touched = TouchTrigger.drain(this.connection);
+        final Set<String> watched = this.watched();
+        int count = 0;
+        try (Statement stmt = this.connection.createStatement()) {
+            stmt.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (final String[] table : this.tables()) {
+                    final String name = TouchTrigger.quoted(table[0], table[1]);
+                    if (!watched.contains(name)) {
+                        stmt.execute(Truncation.watch(table));
+                    }
+                    if (!watched.contains(name) || touched.contains(name)) {
+                        stmt.execute(
+                            String.format("TRUNCATE TABLE %s RESTART IDENTITY", name)
+                        );
+                        count += 1;
+                    }
+                }
+            } finally {
+                stmt.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+            for (final String sequence : this.sequences()) {
+                stmt.execute(sequence);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tables of the database.
+     * @return Schema and name of each table
+     * @throws SQLException If fails
+     */
+    private List<String[]> tables() throws SQLException {
+        final List<String[]> tables = new LinkedList<>();
+        try (
+            Statement stmt = this.connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                String.join(
+                    " ",
+                    "SELECT TABLE_SCHEMA, TABLE_NAME FROM INFORMATION_SCHEMA.TABLES",
+                    "WHERE TABLE_TYPE = 'BASE TABLE'",
+                    "AND UPPER(TABLE_SCHEMA) NOT IN ('INFORMATION_SCHEMA', 'PG_CATALOG')"
+                )
+            )
+        ) {
+            while (rs.next()) {
+                tables.add(new String[] {rs.getString(1), rs.getString(2)});
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Tables watched by a trigger.
+     * @return Quoted names of the tables
+     * @throws SQLException If fails
+     */
+    private Set<String> watched() throws SQLException {
+        final Set<String> tables = new HashSet<>();
+        try (
+            Statement stmt = this.connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                String.format(
+                    String.join(
+                        " ",
+                        "SELECT EVENT_OBJECT_SCHEMA, EVENT_OBJECT_TABLE",
+                        "FROM INFORMATION_SCHEMA.TRIGGERS WHERE JAVA_CLASS = '%s'"
+                    ),
+                    TouchTrigger.class.getName()
+                )
+            )
+        ) {
+            while (rs.next()) {
+                tables.add(TouchTrigger.quoted(rs.getString(1), rs.getString(2)));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Statements restarting the sequences that have been used.
+     * @return Statements
+     * @throws SQLException If fails
+     */
+    private List<String> sequences() throws SQLException {
+        final List<String> restarts = new LinkedList<>();
+        try (
+            Statement stmt = this.connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                String.join(
+                    " ",
+                    "SELECT SEQUENCE_SCHEMA, SEQUENCE_NAME, START_VALUE",
+                    "FROM INFORMATION_SCHEMA.SEQUENCES WHERE BASE_VALUE <> START_VALUE"
+                )
+            )
+        ) {
+            while (rs.next()) {
+                restarts.add(
+                    String.format(
+                        "ALTER SEQUENCE %s RESTART WITH %d",
+                        TouchTrigger.quoted(rs.getString(1), rs.getString(2)),
+                        rs.getLong(3)
+                    )
+                );
+            }
+        }
+        return restarts;
+    }
+
+    /**
+     * Statement installing a trigger on a table.
+     * @param table Schema and name of the table
+     * @return Statement
+     */
+    private static String watch(final String[] table) {
+        return String.format(
+            String.join(
+                " ",
+                "CREATE TRIGGER IF NOT EXISTS %s",
+                "AFTER INSERT, UPDATE, DELETE ON %s FOR EACH STATEMENT CALL \"%s\""
+            ),
+            TouchTrigger.quoted(table[0], String.format("lightweight_touch_%s", table[1])),
+            TouchTrigger.quoted(table[0], table[1]),
+            TouchTrigger.class.getName()
+        );
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Warm databases.
+ * <p>It keeps databases initialized in background threads, so that acquiring
+ * a fresh one doesn't wait for its creation: each acquired database is
+ * replaced at once by a new one from the factory. A released database is
+ * closed, never handed out again, so that each database handed out is
+ * exactly as the factory makes it, migrated for instance. Closing it
+ * closes the databases not acquired. Use one instance per dialect:
+ * <pre>{@code
+ * final WarmDatabases databases = new WarmDatabases(
+ *     EmbeddedPostgreSQLDataSource::new, 4
+ * );
+ * final DataSource source = databases.acquire();
+ * // ... run a test with source
+ * databases.release(source);
+ * }</pre>
+ * @since 0.2
+ */
+public final class WarmDatabases implements AutoCloseable {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(
+        WarmDatabases.class.getName()
+    );
+
+    /**
+     * Factory of databases.
+     */
+    private final Supplier<? extends DataSource> factory;
+
+    /**
+     * Number of databases kept ready.
+     */
+    private final int size;
+
+    /**
+     * Databases being prepared or ready.
+     */
+    private final BlockingQueue<CompletableFuture<DataSource>> ready;
+
+    /**
+     * Background threads.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Lock to refill the databases.
+     */
+    private final Lock lock;
+
+    /**
+     * Ctor.
+     * <p>It keeps one database ready per available processor.
+     * @param factory Factory of databases
+     */
+    public WarmDatabases(final Supplier<? extends DataSource> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Ctor.
+     * @param factory Factory of databases
+     * @param size Number of databases kept ready
+     */
+    public WarmDatabases(
+        final Supplier<? extends DataSource> factory, final int size
+    ) {
+        this.factory = factory;
+        this.size = size;
+        this.ready = new LinkedBlockingQueue<>();
+        this.threads = Executors.newFixedThreadPool(
+            size,
+            runnable -> {
+                final Thread thread = new Thread(runnable, "warm-databases");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.lock = new ReentrantLock();
+        this.refill();
+    }
+
+    /**
+     * Acquire a fresh database.
+     * <p>A new one is prepared in its place, so that the next acquire
+     * doesn't wait for it either.
+     * @return Database
+     * @throws SQLException If the database could not be prepared
+     */
+    public DataSource acquire() throws SQLException {
+        CompletableFuture<DataSource> next = this.ready.poll();
+        if (next == null) {
+            next = this.create();
+        }
+        this.refill();
+        try {
+            return next.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                throw (SQLException) ex.getCause();
+            }
+            throw new SQLException(ex.getCause());
+        }
+    }
+
+    /**
+     * Release a database.
+     * <p>It's closed in background: a database is never handed out twice.
+     * @param source Database acquired before
+     */
+    public void release(final DataSource source) {
+        CompletableFuture.runAsync(
+            () -> WarmDatabases.dispose(source), this.threads
+        );
+    }
+
+    /**
+     * Stop preparing databases and close the ones not acquired.
+     * <p>It waits for the databases being prepared, to close them too.
+     */
+    @Override
+    public void close() {
+        CompletableFuture<DataSource> next = this.ready.poll();
+        while (next != null) {
+            next.thenAccept(WarmDatabases::dispose);
+            next = this.ready.poll();
+        }
+        this.threads.shutdown();
+        try {
+            this.threads.awaitTermination(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prepare new databases until enough of them are being prepared or
+     * ready.
+     */
+    private void refill() {
+        this.lock.lock();
+        try {
+            while (this.ready.size() < this.size) {
+                this.ready.offer(this.create());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Create a database in background.
+     * @return Database being prepared
+     */
+    private CompletableFuture<DataSource> create() {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                final DataSource source = this.factory.get();
+                WarmDatabases.execute(source, "select 1");
+                return source;
+            },
+            this.threads
+        );
+    }
+
+    /**
+     * Close a database, if it can be closed.
+     * @param source Database
+     * @checkstyle IllegalCatchCheck (15 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static void dispose(final DataSource source) {
+        if (source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) source).close();
+            } catch (final Exception ex) {
+                WarmDatabases.LOGGER.log(
+                    Level.FINE, "Database could not be closed", ex
+                );
+            }
+        }
+    }
+
+    /**
+     * Execute a statement on a database.
+     * @param source Database
+     * @param sql Statement
+     */
+    private static void execute(final DataSource source, final String sql) {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute(sql);
+        } catch (final SQLException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+}
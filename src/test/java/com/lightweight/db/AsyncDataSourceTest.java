@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link AsyncDataSource}.
+ * @since 0.2
+ */
+final class AsyncDataSourceTest {
+
+    @Test
+    void executesOnItsOwnThreads() throws Exception {
+        try (AsyncDataSource source = new AsyncDataSource(new EmbeddedH2DataSource(), 2)) {
+            source.initialize().get(1L, TimeUnit.MINUTES);
+            MatcherAssert.assertThat(
+                source.apply(
+                    connection -> {
+                        try (
+                            Statement s = connection.createStatement();
+                            ResultSet rs = s.executeQuery("SELECT 1")
+                        ) {
+                            rs.next();
+                            return Thread.currentThread().getName();
+                        }
+                    }
+                ).get(1L, TimeUnit.MINUTES),
+                Matchers.startsWith("async-db-")
+            );
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link CachingDataSource}.
+ * @since 0.2
+ */
+final class CachingDataSourceTest {
+
+    @Test
+    void reusesClosedStatement() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource source = new CachingDataSource(origin);
+            try (Connection connection = source.getConnection()) {
+                for (int idx = 0; idx < 3; ++idx) {
+                    try (PreparedStatement stmt = connection.prepareStatement("SELECT ?")) {
+                        stmt.setInt(1, idx);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            rs.next();
+                            MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(idx));
+                        }
+                    }
+                }
+            }
+            MatcherAssert.assertThat(source.hits(), Matchers.equalTo(2L));
+            MatcherAssert.assertThat(source.misses(), Matchers.equalTo(1L));
+        }
+    }
+
+    @Test
+    void neverSharesStatementInUse() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource source = new CachingDataSource(origin);
+            try (
+                Connection connection = source.getConnection();
+                PreparedStatement first = connection.prepareStatement("SELECT 1");
+                PreparedStatement second = connection.prepareStatement("SELECT 1")
+            ) {
+                MatcherAssert.assertThat(first, Matchers.not(Matchers.sameInstance(second)));
+            }
+            MatcherAssert.assertThat(source.misses(), Matchers.equalTo(2L));
+        }
+    }
+
+    @Test
+    void neverHandsOutChangedSettings() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource source = new CachingDataSource(origin);
+            try (Connection connection = source.getConnection()) {
+                connection.createStatement().execute(
+                    "CREATE TABLE item AS SELECT X AS id FROM SYSTEM_RANGE(1, 3)"
+                );
+                try (PreparedStatement stmt = connection.prepareStatement("SELECT id FROM item")) {
+                    stmt.setMaxRows(1);
+                    stmt.executeQuery().close();
+                }
+                try (
+                    PreparedStatement stmt = connection.prepareStatement("SELECT id FROM item");
+                    ResultSet rs = stmt.executeQuery()
+                ) {
+                    int rows = 0;
+                    while (rs.next()) {
+                        rows += 1;
+                    }
+                    MatcherAssert.assertThat(rows, Matchers.equalTo(3));
+                }
+            }
+            MatcherAssert.assertThat(source.misses(), Matchers.equalTo(2L));
+        }
+    }
+
+    @Test
+    void closesResultSetOnGiveBack() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource source = new CachingDataSource(origin);
+            try (Connection connection = source.getConnection()) {
+                final ResultSet rs;
+                try (PreparedStatement stmt = connection.prepareStatement("SELECT 1")) {
+                    rs = stmt.executeQuery();
+                }
+                MatcherAssert.assertThat(rs.isClosed(), Matchers.is(true));
+            }
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource source = new CachingDataSource(origin, 1);
+            try (Connection connection = source.getConnection()) {
+                connection.prepareStatement("SELECT 1").close();
+                connection.prepareStatement("SELECT 2").close();
+                connection.prepareStatement("SELECT 1").close();
+            }
+            MatcherAssert.assertThat(source.misses(), Matchers.equalTo(3L));
+        }
+    }
+
+    @Test
+    void sharesStatementsThroughPool() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final CachingDataSource cache = new CachingDataSource(origin);
+            try (PooledDataSource pool = new PooledDataSource(cache, 1)) {
+                for (int idx = 0; idx < 2; ++idx) {
+                    try (Connection connection = pool.getConnection()) {
+                        connection.prepareStatement("SELECT 1").close();
+                    }
+                }
+            }
+            MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(1L));
+        }
+    }
+
+    @Test
+    void refusesClosedStatement() throws SQLException {
+        try (
+            EmbeddedH2DataSource origin = new EmbeddedH2DataSource();
+            Connection connection = new CachingDataSource(origin).getConnection()
+        ) {
+            final PreparedStatement stmt = connection.prepareStatement("SELECT 1");
+            stmt.close();
+            Assertions.assertThrows(SQLException.class, stmt::executeQuery);
+        }
+    }
+}
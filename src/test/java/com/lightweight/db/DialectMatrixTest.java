@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+
+/**
+ * Test cases for {@link DialectMatrix}.
+ * @since 0.2
+ */
+final class DialectMatrixTest {
+
+    @AcrossDialects
+    void runsOnEachDialect(final DataSource source, final Dialect dialect)
+        throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute("CREATE TABLE item (id INT)");
+            try (
+                ResultSet rs = stmt.executeQuery(
+                    "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'MODE'"
+                )
+            ) {
+                rs.next();
+                MatcherAssert.assertThat(
+                    rs.getString(1).toUpperCase(Locale.ENGLISH),
+                    Matchers.equalTo(DialectMatrixTest.mode(dialect))
+                );
+            }
+        }
+    }
+
+    @AcrossDialects({Dialect.POSTGRESQL, Dialect.MYSQL})
+    void runsOnGivenDialects(final Dialect dialect) {
+        MatcherAssert.assertThat(
+            Arrays.asList(Dialect.POSTGRESQL, Dialect.MYSQL),
+            Matchers.hasItem(dialect)
+        );
+    }
+
+    /**
+     * Compatibility mode of H2 for a dialect.
+     * @param dialect Dialect
+     * @return Mode, upper-cased
+     */
+    private static String mode(final Dialect dialect) {
+        final String mode;
+        if (dialect == Dialect.H2) {
+            mode = "REGULAR";
+        } else {
+            mode = dialect.name();
+        }
+        return mode;
+    }
+}
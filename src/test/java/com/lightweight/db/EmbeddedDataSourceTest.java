@@ -0,0 +1,255 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link EmbeddedDataSource}.
+ * @since 0.2
+ */
+final class EmbeddedDataSourceTest {
+
+    /**
+     * Number of data sources initialized together.
+     */
+    private static final int SOURCES = Rendezvous.PARTIES;
+
+    /**
+     * Number of virtual threads opening connections together.
+     */
+    private static final int VIRTUAL = 5000;
+
+    @Test
+    void keepsInMemoryDatabaseBetweenConnections() throws SQLException {
+        final DataSource source = new EmbeddedDataSource(
+            new InMemoryStorage().url(new RandomDatabaseName().value())
+        );
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+            s.execute("INSERT INTO item VALUES (1)");
+        }
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+        ) {
+            rs.next();
+            MatcherAssert.assertThat(
+                rs.getInt(1),
+                Matchers.equalTo(1)
+            );
+        }
+    }
+
+    @Test
+    void initializesDataSourcesConcurrently() throws Exception {
+        final ExecutorService threads = Executors.newFixedThreadPool(
+            EmbeddedDataSourceTest.SOURCES
+        );
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>(
+                EmbeddedDataSourceTest.SOURCES
+            );
+            for (int idx = 0; idx < EmbeddedDataSourceTest.SOURCES; ++idx) {
+                final DataSource source = new EmbeddedDataSource(
+                    String.format(
+                        String.join(
+                            "",
+                            "%s;INIT=CREATE ALIAS IF NOT EXISTS ARRIVE FOR ",
+                            "'com.lightweight.db.Rendezvous.arrive'",
+                            "\\;CALL ARRIVE()"
+                        ),
+                        new InMemoryStorage().url(
+                            new RandomDatabaseName().value()
+                        )
+                    )
+                );
+                results.add(
+                    threads.submit(
+                        () -> {
+                            try (Connection connection = source.getConnection()) {
+                                return connection.isValid(1);
+                            }
+                        }
+                    )
+                );
+            }
+            for (final Future<Boolean> result : results) {
+                MatcherAssert.assertThat(result.get(), Matchers.is(true));
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void deletesFilesOnClose() throws IOException, SQLException {
+        final String name = new RandomDatabaseName().value();
+        final Path directory = Files.createTempDirectory("lightweight-db");
+        final EmbeddedH2DataSource source = new EmbeddedH2DataSource(
+            name, new FileStorage(directory)
+        );
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+        }
+        source.close();
+        MatcherAssert.assertThat(
+            Files.exists(directory.resolve(String.format("%s.mv.db", name))),
+            Matchers.is(false)
+        );
+        Assertions.assertThrows(SQLException.class, source::getConnection);
+    }
+
+    @Test
+    void keepsSchemaOnReset() throws SQLException {
+        try (EmbeddedPostgreSQLDataSource source = new EmbeddedPostgreSQLDataSource()) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE parent (id BIGSERIAL PRIMARY KEY)");
+                s.execute(
+                    "CREATE TABLE child (id INT PRIMARY KEY, parent BIGINT REFERENCES parent (id))"
+                );
+                s.execute("INSERT INTO parent DEFAULT VALUES");
+                s.execute("INSERT INTO child VALUES (1, 1)");
+            }
+            source.reset();
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("INSERT INTO parent DEFAULT VALUES");
+                try (ResultSet rs = s.executeQuery("SELECT id FROM parent")) {
+                    rs.next();
+                    MatcherAssert.assertThat(rs.getLong(1), Matchers.equalTo(1L));
+                    MatcherAssert.assertThat(rs.next(), Matchers.is(false));
+                }
+                try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM child")) {
+                    rs.next();
+                    MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(0));
+                }
+            }
+        }
+    }
+
+    @Test
+    void servesVirtualThreadsWithoutPinning() throws Exception {
+        Assumptions.assumeTrue(
+            VirtualThreads.available(), "Virtual threads are not available"
+        );
+        try (EmbeddedH2DataSource source = new EmbeddedH2DataSource()) {
+            MatcherAssert.assertThat(
+                VirtualThreads.pinned(
+                    () -> {
+                        final ExecutorService threads = VirtualThreads.executor();
+                        try {
+                            final List<Future<Boolean>> results = new ArrayList<>(
+                                EmbeddedDataSourceTest.VIRTUAL
+                            );
+                            for (int idx = 0; idx < EmbeddedDataSourceTest.VIRTUAL; ++idx) {
+                                results.add(
+                                    threads.submit(
+                                        () -> {
+                                            try (Connection connection = source.getConnection()) {
+                                                return connection.isValid(1);
+                                            }
+                                        }
+                                    )
+                                );
+                            }
+                            for (final Future<Boolean> result : results) {
+                                MatcherAssert.assertThat(result.get(), Matchers.is(true));
+                            }
+                        } finally {
+                            threads.shutdown();
+                        }
+                        return null;
+                    }
+                ),
+                Matchers.equalTo(0)
+            );
+        }
+    }
+
+    @Test
+    void tellsFootprintOfHeapDatabaseIsUnknown() throws SQLException {
+        try (EmbeddedH2DataSource source = new EmbeddedH2DataSource()) {
+            final Footprint footprint = source.footprint();
+            MatcherAssert.assertThat(
+                footprint.known(),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                footprint.toString(),
+                Matchers.startsWith("unknown")
+            );
+        }
+    }
+
+    @Test
+    void reportsStartupOnWarmUp() throws SQLException {
+        try (
+            EmbeddedH2DataSource first = new EmbeddedH2DataSource();
+            EmbeddedH2DataSource second = new EmbeddedH2DataSource()
+        ) {
+            final Startup startup = first.warmUp();
+            MatcherAssert.assertThat(
+                startup.total(),
+                Matchers.greaterThan(Duration.ZERO)
+            );
+            MatcherAssert.assertThat(first.warmUp(), Matchers.sameInstance(startup));
+            MatcherAssert.assertThat(
+                second.warmUp().driver(),
+                Matchers.equalTo(Duration.ZERO)
+            );
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link EmbeddedDatabaseExtension}.
+ * @since 0.2
+ */
+@EmbeddedDatabase
+final class EmbeddedDatabaseExtensionTest {
+
+    @Test
+    void startsFromEmptyDatabase(final DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS person (id INT PRIMARY KEY)");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM person")) {
+                rs.next();
+                MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(0));
+            }
+            stmt.execute("INSERT INTO person VALUES (1)");
+        }
+    }
+
+    @Test
+    void startsFromEmptyDatabaseAgain(final DataSource source) throws SQLException {
+        this.startsFromEmptyDatabase(source);
+    }
+
+    @Test
+    void resolvesDialectOfParameter(
+        @EmbeddedDatabase(Dialect.POSTGRESQL) final DataSource source
+    ) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'MODE'"
+            )
+        ) {
+            rs.next();
+            MatcherAssert.assertThat(rs.getString(1), Matchers.equalTo("PostgreSQL"));
+        }
+    }
+
+    @Test
+    void sharesDatabaseWithinTest(
+        final DataSource first, final DataSource second
+    ) {
+        MatcherAssert.assertThat(first, Matchers.sameInstance(second));
+    }
+
+    @Test
+    @DetectQueries(repeats = 1)
+    void detectsQueriesOfTest(final DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement()
+        ) {
+            stmt.execute("SELECT 1");
+        }
+        MatcherAssert.assertThat(
+            ((QueryDetector) source).report().statements(),
+            Matchers.equalTo(1L)
+        );
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import javax.management.ObjectName;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link MeteredDataSource}.
+ * @since 0.2
+ */
+final class MeteredDataSourceTest {
+
+    @Test
+    void countsConnectionsAndStatements() throws Exception {
+        try (MeteredDataSource source = new MeteredDataSource(new EmbeddedH2DataSource())) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE item (id INT)");
+                try (
+                    PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO item VALUES (?)"
+                    )
+                ) {
+                    insert.setInt(1, 1);
+                    insert.executeUpdate();
+                }
+                MatcherAssert.assertThat(
+                    source.snapshot().getConnectionsOutstanding(),
+                    Matchers.equalTo(1L)
+                );
+            }
+            final Statistics stats = source.snapshot();
+            MatcherAssert.assertThat(
+                stats.getStatementsExecuted(),
+                Matchers.equalTo(2L)
+            );
+            MatcherAssert.assertThat(
+                stats.getConnectionsOutstanding(),
+                Matchers.equalTo(0L)
+            );
+            MatcherAssert.assertThat(
+                stats.getSlowestStatements().length,
+                Matchers.equalTo(2)
+            );
+        }
+    }
+
+    @Test
+    void exposesStatisticsThroughJmx() throws Exception {
+        final String name = new RandomDatabaseName().value();
+        try (MeteredDataSource source = new MeteredDataSource(new EmbeddedH2DataSource(), name)) {
+            source.getConnection().close();
+            MatcherAssert.assertThat(
+                ManagementFactory.getPlatformMBeanServer().getAttribute(
+                    new ObjectName(
+                        String.format(
+                            "com.lightweight.db:type=Statistics,name=%s",
+                            ObjectName.quote(name)
+                        )
+                    ),
+                    "ConnectionsOpened"
+                ),
+                Matchers.equalTo(1L)
+            );
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.h2.store.fs.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link OffHeapStorage}.
+ * @since 0.2
+ */
+final class OffHeapStorageTest {
+
+    @Test
+    void keepsDatabaseOffHeap() throws SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource(
+                new OffHeapStorage()
+            )
+        ) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE item (id INT, label VARCHAR)");
+                s.execute(
+                    "INSERT INTO item SELECT X, REPEAT('label', 100) FROM SYSTEM_RANGE(1, 10000)"
+                );
+            }
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement();
+                ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+            ) {
+                rs.next();
+                MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(10_000));
+            }
+            MatcherAssert.assertThat(
+                source.footprint().uncompressed(),
+                Matchers.greaterThan(0L)
+            );
+        }
+    }
+
+    @Test
+    void reportsUncompressedSizeOfCompressedStore() throws SQLException {
+        final long plain = OffHeapStorageTest.uncompressed(false);
+        MatcherAssert.assertThat(
+            OffHeapStorageTest.uncompressed(true),
+            Matchers.allOf(
+                Matchers.greaterThan(plain / 2L),
+                Matchers.lessThan(plain * 2L)
+            )
+        );
+    }
+
+    @Test
+    void deletesDatabaseOnClose() throws SQLException {
+        final String name = new RandomDatabaseName().value();
+        final EmbeddedH2DataSource source = new EmbeddedH2DataSource(
+            name, new OffHeapStorage(true)
+        );
+        source.warmUp();
+        source.close();
+        MatcherAssert.assertThat(
+            FileUtils.exists(String.format("nioMemLZF:%s.mv.db", name)),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Logical size of an off-heap store filled with repetitive rows.
+     * @param compressed If the store is compressed
+     * @return Bytes
+     * @throws SQLException If fails
+     */
+    private static long uncompressed(final boolean compressed)
+        throws SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource(
+                new OffHeapStorage(compressed)
+            )
+        ) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE item (id INT, label VARCHAR)");
+                s.execute(
+                    "INSERT INTO item SELECT X, REPEAT('label', 100) FROM SYSTEM_RANGE(1, 10000)"
+                );
+            }
+            return source.footprint().uncompressed();
+        }
+    }
+}
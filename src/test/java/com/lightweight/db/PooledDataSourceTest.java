@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link PooledDataSource}.
+ * @since 0.2
+ */
+final class PooledDataSourceTest {
+
+    @Test
+    void lendsPhysicalConnectionAgain() throws SQLException {
+        try (PooledDataSource pool = new PooledDataSource(new EmbeddedH2DataSource())) {
+            final Connection first;
+            try (Connection connection = pool.getConnection()) {
+                first = connection.unwrap(Connection.class);
+            }
+            try (Connection connection = pool.getConnection()) {
+                MatcherAssert.assertThat(
+                    connection.unwrap(Connection.class),
+                    Matchers.sameInstance(first)
+                );
+            }
+        }
+    }
+
+    @Test
+    void closesOnlyHandedOutConnection() throws SQLException {
+        try (PooledDataSource pool = new PooledDataSource(new EmbeddedH2DataSource())) {
+            final Connection connection = pool.getConnection();
+            connection.close();
+            MatcherAssert.assertThat(
+                connection.isClosed(),
+                Matchers.is(true)
+            );
+            Assertions.assertThrows(
+                SQLException.class,
+                connection::createStatement
+            );
+        }
+    }
+
+    @Test
+    void reportsBorrowersWhenExhausted() throws SQLException {
+        try (PooledDataSource pool = new PooledDataSource(
+            new EmbeddedH2DataSource(), 1, Duration.ofMinutes(1L), Duration.ofMinutes(1L)
+        )) {
+            pool.setLoginTimeout(1);
+            try (Connection connection = pool.getConnection()) {
+                MatcherAssert.assertThat(
+                    Assertions.assertThrows(
+                        SQLTransientConnectionException.class,
+                        pool::getConnection
+                    ).getSuppressed().length,
+                    Matchers.equalTo(1)
+                );
+            }
+        }
+    }
+
+    @Test
+    void resetsSettingsOfBorrower() throws SQLException {
+        try (PooledDataSource pool = new PooledDataSource(new EmbeddedH2DataSource(), 1)) {
+            try (
+                Connection connection = pool.getConnection();
+                Statement stmt = connection.createStatement()
+            ) {
+                stmt.execute("CREATE SCHEMA other");
+                connection.setSchema("OTHER");
+                connection.setReadOnly(true);
+                connection.setTransactionIsolation(
+                    Connection.TRANSACTION_SERIALIZABLE
+                );
+            }
+            try (Connection connection = pool.getConnection()) {
+                MatcherAssert.assertThat(
+                    connection.getSchema(),
+                    Matchers.equalTo("PUBLIC")
+                );
+                MatcherAssert.assertThat(
+                    connection.isReadOnly(),
+                    Matchers.is(false)
+                );
+                MatcherAssert.assertThat(
+                    connection.getTransactionIsolation(),
+                    Matchers.equalTo(Connection.TRANSACTION_READ_COMMITTED)
+                );
+            }
+        }
+    }
+
+    @Test
+    void closesStatementsLeftOpen() throws SQLException {
+        try (PooledDataSource pool = new PooledDataSource(new EmbeddedH2DataSource(), 1)) {
+            final Statement stmt;
+            try (Connection connection = pool.getConnection()) {
+                stmt = connection.prepareStatement("SELECT 1");
+            }
+            MatcherAssert.assertThat(
+                stmt.isClosed(),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    @Test
+    void keepsSessionsAcrossRounds() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final int before = PooledDataSourceTest.sessions(origin);
+            final PooledDataSource pool = new PooledDataSource(origin);
+            final List<Integer> rounds = new ArrayList<>(3);
+            for (int round = 0; round < 3; ++round) {
+                final List<Connection> borrowed = new ArrayList<>(3);
+                for (int idx = 0; idx < 3; ++idx) {
+                    borrowed.add(pool.getConnection());
+                }
+                for (final Connection connection : borrowed) {
+                    connection.close();
+                }
+                rounds.add(PooledDataSourceTest.sessions(origin));
+            }
+            pool.close();
+            MatcherAssert.assertThat(
+                rounds,
+                Matchers.contains(before + 3, before + 3, before + 3)
+            );
+            MatcherAssert.assertThat(
+                PooledDataSourceTest.sessions(origin),
+                Matchers.equalTo(before)
+            );
+        }
+    }
+
+    /**
+     * Number of sessions open on a database, but the one counting them.
+     * @param source Data source of the database
+     * @return Number of sessions
+     * @throws SQLException If fails
+     */
+    private static int sessions(final EmbeddedH2DataSource source)
+        throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery(
+                "SELECT COUNT(*) - 1 FROM INFORMATION_SCHEMA.SESSIONS"
+            )
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link QueryDetector}.
+ * @since 0.2
+ */
+final class QueryDetectorTest {
+
+    @Test
+    void replacesLiterals() {
+        MatcherAssert.assertThat(
+            QueryDetector.normalized(
+                "SELECT name FROM t1\n WHERE id = 42 AND note = 'it''s' AND rate > 1.5e3"
+            ),
+            Matchers.equalTo(
+                "SELECT name FROM t1 WHERE id = ? AND note = ? AND rate > ?"
+            )
+        );
+    }
+
+    @Test
+    void collapsesLists() {
+        MatcherAssert.assertThat(
+            QueryDetector.normalized("SELECT * FROM person WHERE id IN (1, 2,3)"),
+            Matchers.equalTo(
+                QueryDetector.normalized("SELECT * FROM person WHERE id IN (?)")
+            )
+        );
+    }
+
+    @Test
+    void detectsRepeatedStatement() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final QueryDetector source = new QueryDetector(
+                origin, 3, Duration.ofMinutes(1L)
+            );
+            try (
+                Connection connection = source.getConnection();
+                Statement stmt = connection.createStatement()
+            ) {
+                stmt.execute("CREATE TABLE person (id INT PRIMARY KEY)");
+                for (int idx = 0; idx < 5; ++idx) {
+                    stmt.executeQuery(
+                        String.format("SELECT id FROM person WHERE id = %d", idx)
+                    ).close();
+                }
+            }
+            MatcherAssert.assertThat(
+                Assertions.assertThrows(AssertionError.class, source::verify)
+                    .getMessage(),
+                Matchers.containsString(
+                    "5 times (at most 3): SELECT id FROM person WHERE id = ?"
+                )
+            );
+        }
+    }
+
+    @Test
+    void detectsSlowStatement() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final QueryDetector source = new QueryDetector(
+                origin, 10, Duration.ZERO
+            );
+            try (
+                Connection connection = source.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT ?")
+            ) {
+                stmt.setInt(1, 1);
+                stmt.executeQuery().close();
+            }
+            MatcherAssert.assertThat(
+                source.report().slow(), Matchers.hasSize(1)
+            );
+        }
+    }
+
+    @Test
+    void startsNewScopeOnReset() throws SQLException {
+        try (EmbeddedH2DataSource origin = new EmbeddedH2DataSource()) {
+            final QueryDetector source = new QueryDetector(
+                origin, 1, Duration.ofMinutes(1L)
+            );
+            try (
+                Connection connection = source.getConnection();
+                Statement stmt = connection.createStatement()
+            ) {
+                stmt.execute("SELECT 1");
+                stmt.execute("SELECT 2");
+                MatcherAssert.assertThat(source.reset().exceeded(), Matchers.is(true));
+                stmt.execute("SELECT 3");
+            }
+            final QueryReport report = source.verify();
+            MatcherAssert.assertThat(report.statements(), Matchers.equalTo(1L));
+            MatcherAssert.assertThat(report.distinct(), Matchers.equalTo(1));
+        }
+    }
+}
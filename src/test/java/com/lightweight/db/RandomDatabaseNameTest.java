@@ -24,6 +24,13 @@
 
 package com.lightweight.db;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -42,4 +49,61 @@ final class RandomDatabaseNameTest {
             Matchers.startsWith("test_db")
         );
     }
+
+    @Test
+    void prefixesName() {
+        MatcherAssert.assertThat(
+            new RandomDatabaseName("orders_").value(),
+            Matchers.startsWith("orders_")
+        );
+    }
+
+    @Test
+    void separatesPrefixFromProcess() {
+        MatcherAssert.assertThat(
+            new RandomDatabaseName("a1").value(),
+            Matchers.startsWith("a1_")
+        );
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void keepsIntervalConstructor() {
+        MatcherAssert.assertThat(
+            new RandomDatabaseName(0, 10).value(),
+            Matchers.startsWith("test_db_")
+        );
+    }
+
+    @Test
+    void generatesUniqueNamesAcrossThreads() throws Exception {
+        final int threads = 8;
+        final int names = 100_000;
+        final Set<String> generated = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>(threads);
+            for (int thread = 0; thread < threads; ++thread) {
+                tasks.add(
+                    executor.submit(
+                        () -> {
+                            final RandomDatabaseName name = new RandomDatabaseName();
+                            for (int idx = 0; idx < names; ++idx) {
+                                generated.add(name.value());
+                            }
+                        }
+                    )
+                );
+            }
+            for (final Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        MatcherAssert.assertThat(
+            generated.size(),
+            Matchers.equalTo(threads * names)
+        );
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link Registry}.
+ * @since 0.2
+ */
+final class RegistryTest {
+
+    @Test
+    void sharesDatabaseOfSameName() throws SQLException {
+        final String name = new RandomDatabaseName().value();
+        final EmbeddedPostgreSQLDataSource first = new EmbeddedPostgreSQLDataSource(name);
+        try (
+            Connection connection = first.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+            s.execute("INSERT INTO item VALUES (1)");
+        }
+        try (EmbeddedPostgreSQLDataSource second = new EmbeddedPostgreSQLDataSource(name)) {
+            first.close();
+            MatcherAssert.assertThat(RegistryTest.items(second), Matchers.equalTo(1));
+            Assertions.assertThrows(SQLException.class, first::getConnection);
+        }
+        try (EmbeddedPostgreSQLDataSource third = new EmbeddedPostgreSQLDataSource(name)) {
+            Assertions.assertThrows(SQLException.class, () -> RegistryTest.items(third));
+        }
+    }
+
+    @Test
+    void neverRegistersRandomName() throws SQLException {
+        final int size = Registry.size();
+        try (EmbeddedPostgreSQLDataSource source = new EmbeddedPostgreSQLDataSource()) {
+            source.getConnection().close();
+            MatcherAssert.assertThat(Registry.size(), Matchers.equalTo(size));
+        }
+    }
+
+    @Test
+    void normalizesSettings() {
+        MatcherAssert.assertThat(
+            Registry.normalized("jdbc:h2:mem:db;mode=MySQL;DATABASE_TO_LOWER=TRUE"),
+            Matchers.equalTo(
+                Registry.normalized("jdbc:h2:mem:db; DATABASE_TO_LOWER=TRUE;MODE=MySQL")
+            )
+        );
+    }
+
+    /**
+     * Count the items of a database.
+     * @param source Data source
+     * @return Number of items
+     * @throws SQLException If fails
+     */
+    private static int items(final EmbeddedPostgreSQLDataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
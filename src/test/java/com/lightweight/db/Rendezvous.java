@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendezvous of database initializations.
+ * <p>It's called by H2 as a Java function on each new connection.
+ * It only succeeds if all the parties open a database at the same time.
+ * @since 0.2
+ */
+public final class Rendezvous {
+
+    /**
+     * Number of parties.
+     */
+    public static final int PARTIES = 8;
+
+    /**
+     * Latch.
+     */
+    private static final CountDownLatch LATCH =
+        new CountDownLatch(Rendezvous.PARTIES);
+
+    /**
+     * Ctor.
+     */
+    private Rendezvous() {
+        // Utility class
+    }
+
+    /**
+     * Wait until all the parties have arrived.
+     * @throws InterruptedException If interrupted
+     */
+    public static void arrive() throws InterruptedException {
+        Rendezvous.LATCH.countDown();
+        if (!Rendezvous.LATCH.await(1L, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(
+                "Databases are not initialized concurrently"
+            );
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.h2.jdbc.JdbcConnection;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link RollbackDataSource}.
+ * @since 0.2
+ */
+final class RollbackDataSourceTest {
+
+    @Test
+    void rollsBackWhatConnectionsCommitted() throws SQLException {
+        final DataSource origin = new EmbeddedH2DataSource();
+        try (
+            Connection connection = origin.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+        }
+        try (RollbackDataSource source = new RollbackDataSource(origin)) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("INSERT INTO item VALUES (1)");
+                connection.commit();
+            }
+            MatcherAssert.assertThat(
+                RollbackDataSourceTest.count(source),
+                Matchers.equalTo(1)
+            );
+            source.reset();
+            MatcherAssert.assertThat(
+                RollbackDataSourceTest.count(source),
+                Matchers.equalTo(0)
+            );
+        }
+    }
+
+    @Test
+    void rollsBackOnlyWhatConnectionDid() throws SQLException {
+        final DataSource origin = new EmbeddedH2DataSource();
+        try (
+            Connection connection = origin.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+        }
+        try (RollbackDataSource source = new RollbackDataSource(origin)) {
+            try (
+                Connection fixture = source.getConnection();
+                Statement s = fixture.createStatement()
+            ) {
+                s.execute("INSERT INTO item VALUES (1)");
+            }
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("INSERT INTO item VALUES (2)");
+                connection.commit();
+                s.execute("INSERT INTO item VALUES (3)");
+                connection.rollback();
+            }
+            MatcherAssert.assertThat(
+                RollbackDataSourceTest.count(source),
+                Matchers.equalTo(2)
+            );
+            source.reset();
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("INSERT INTO item VALUES (4)");
+                connection.rollback();
+            }
+            MatcherAssert.assertThat(
+                RollbackDataSourceTest.count(source),
+                Matchers.equalTo(0)
+            );
+        }
+    }
+
+    @Test
+    void neverHandsOutPhysicalConnection() throws SQLException {
+        try (
+            RollbackDataSource source = new RollbackDataSource(new EmbeddedH2DataSource());
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            MatcherAssert.assertThat(s.getConnection(), Matchers.sameInstance(connection));
+            MatcherAssert.assertThat(
+                connection.getMetaData().getConnection(),
+                Matchers.sameInstance(connection)
+            );
+            MatcherAssert.assertThat(
+                connection.unwrap(Connection.class),
+                Matchers.sameInstance(connection)
+            );
+            Assertions.assertThrows(
+                SQLException.class,
+                () -> connection.unwrap(JdbcConnection.class)
+            );
+        }
+    }
+
+    /**
+     * Count items.
+     * @param source Data source
+     * @return Number of items
+     * @throws SQLException If fails
+     */
+    private static int count(final DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
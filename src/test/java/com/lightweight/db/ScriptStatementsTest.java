@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link ScriptStatements}.
+ * @since 0.2
+ */
+final class ScriptStatementsTest {
+
+    @Test
+    void splitsOnSemicolons() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "CREATE TABLE a (id INT);\n\nINSERT INTO a VALUES (1);;SELECT 1",
+                Dialect.H2
+            ),
+            Matchers.contains(
+                "CREATE TABLE a (id INT)", "INSERT INTO a VALUES (1)", "SELECT 1"
+            )
+        );
+    }
+
+    @Test
+    void keepsSemicolonsInQuotes() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "INSERT INTO \"a;b\" VALUES ('x;''y');SELECT 2;",
+                Dialect.H2
+            ),
+            Matchers.contains(
+                "INSERT INTO \"a;b\" VALUES ('x;''y')", "SELECT 2"
+            )
+        );
+    }
+
+    @Test
+    void leavesCommentsOut() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "-- first; line\nSELECT 1 /* a; b */ + 2--end;\n;SELECT 3",
+                Dialect.H2
+            ),
+            Matchers.contains("SELECT 1   + 2", "SELECT 3")
+        );
+    }
+
+    @Test
+    void keepsDollarQuotedStrings() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "CREATE ALIAS f AS $$ int f() { return 1; } $$;SELECT $1;",
+                Dialect.H2
+            ),
+            Matchers.contains(
+                "CREATE ALIAS f AS $$ int f() { return 1; } $$", "SELECT $1"
+            )
+        );
+    }
+
+    @Test
+    void keepsTaggedDollarQuotesOfPostgreSql() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "DO $body$ BEGIN PERFORM 1; END $body$;SELECT 1",
+                Dialect.POSTGRESQL
+            ),
+            Matchers.contains(
+                "DO $body$ BEGIN PERFORM 1; END $body$", "SELECT 1"
+            )
+        );
+    }
+
+    @Test
+    void escapesQuotesOfMySql() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "INSERT INTO `t;1` VALUES ('it\\'s;');SELECT 1",
+                Dialect.MYSQL
+            ),
+            Matchers.contains(
+                "INSERT INTO `t;1` VALUES ('it\\'s;')", "SELECT 1"
+            )
+        );
+    }
+
+    @Test
+    void escapesQuotesOfPostgreSqlEscapeStrings() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "SELECT E'a\\';b';SELECT e'\\\\';SELECT 'c\\';SELECT name'd\\';SELECT 2",
+                Dialect.POSTGRESQL
+            ),
+            Matchers.contains(
+                "SELECT E'a\\';b'", "SELECT e'\\\\'", "SELECT 'c\\'",
+                "SELECT name'd\\'", "SELECT 2"
+            )
+        );
+    }
+
+    @Test
+    void splitsOnGoOfMsSqlServer() throws IOException {
+        MatcherAssert.assertThat(
+            ScriptStatementsTest.split(
+                "CREATE TABLE a (id INT)\nGO\nSELECT 'GO'\n  go  \nSELECT 2\nGO",
+                Dialect.MSSQLSERVER
+            ),
+            Matchers.contains("CREATE TABLE a (id INT)", "SELECT 'GO'", "SELECT 2")
+        );
+    }
+
+    /**
+     * Split a script.
+     * @param script Script
+     * @param dialect Dialect
+     * @return Statements
+     * @throws IOException If fails
+     */
+    private static List<String> split(final String script, final Dialect dialect)
+        throws IOException {
+        final ScriptStatements statements = new ScriptStatements(
+            new StringReader(script), dialect
+        );
+        final List<String> all = new ArrayList<>(0);
+        String sql = statements.next();
+        while (sql != null) {
+            all.add(sql);
+            sql = statements.next();
+        }
+        return all;
+    }
+}
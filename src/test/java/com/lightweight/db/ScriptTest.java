@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link Script}.
+ * @since 0.2
+ */
+final class ScriptTest {
+
+    @Test
+    void runsScriptFile() throws IOException, SQLException {
+        final Path file = Files.createTempFile("lightweight-db", ".sql");
+        final StringBuilder script = new StringBuilder(
+            "CREATE TABLE item (id INT PRIMARY KEY, label VARCHAR(20));\n"
+        );
+        for (int idx = 0; idx < 500; ++idx) {
+            script.append(
+                String.format("INSERT INTO item VALUES (%d, 'item;%d');\n", idx, idx)
+            );
+        }
+        Files.write(file, Arrays.asList(script.toString()), StandardCharsets.UTF_8);
+        try (EmbeddedH2DataSource source = new EmbeddedH2DataSource()) {
+            final ScriptReport report = new Script(source, Dialect.H2, 50)
+                .run(file.toString());
+            MatcherAssert.assertThat(report.statements(), Matchers.equalTo(501L));
+            MatcherAssert.assertThat(report.slowest().size(), Matchers.equalTo(10));
+            MatcherAssert.assertThat(ScriptTest.items(source), Matchers.equalTo(500));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rollsBackOnFailure() throws IOException, SQLException {
+        try (EmbeddedH2DataSource source = new EmbeddedH2DataSource()) {
+            new Script(source).run(new StringReader("CREATE TABLE item (id INT)"));
+            final SQLException error = Assertions.assertThrows(
+                SQLException.class,
+                () -> new Script(source).run(
+                    new StringReader(
+                        "INSERT INTO item VALUES (1); INSERT INTO unknown VALUES (2);"
+                    )
+                )
+            );
+            MatcherAssert.assertThat(
+                error.getMessage(),
+                Matchers.startsWith("Statement #2 failed")
+            );
+            MatcherAssert.assertThat(ScriptTest.items(source), Matchers.equalTo(0));
+        }
+    }
+
+    /**
+     * Count the items of a database.
+     * @param source Data source
+     * @return Number of items
+     * @throws SQLException If fails
+     */
+    private static int items(final EmbeddedH2DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
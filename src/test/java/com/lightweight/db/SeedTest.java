@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link Seed}.
+ * @since 0.2
+ */
+final class SeedTest {
+
+    @Test
+    void loadsRowsInBatches() throws SQLException {
+        final DataSource source = SeedTest.items();
+        final int rows = 10_000;
+        MatcherAssert.assertThat(
+            new Seed(source, 256).rows(
+                "item",
+                Arrays.asList("id", "name"),
+                () -> IntStream.range(0, rows)
+                    .mapToObj(idx -> new Object[]{idx, String.format("item %d", idx)})
+                    .iterator()
+            ),
+            Matchers.equalTo((long) rows)
+        );
+        MatcherAssert.assertThat(
+            SeedTest.count(source),
+            Matchers.equalTo(rows)
+        );
+    }
+
+    @Test
+    void loadsCsvFile() throws IOException, SQLException {
+        final DataSource source = SeedTest.items();
+        final Path file = Files.createTempFile("items", ".csv");
+        Files.write(
+            file,
+            Arrays.asList("NAME,ID", "pen,1", "ink,2", "paper,3"),
+            StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            new Seed(source).csv("item", file.toString()),
+            Matchers.equalTo(3L)
+        );
+        MatcherAssert.assertThat(
+            SeedTest.count(source),
+            Matchers.equalTo(3)
+        );
+    }
+
+    /**
+     * Database with an item table.
+     * @return Data source
+     * @throws SQLException If fails
+     */
+    private static DataSource items() throws SQLException {
+        final DataSource source = new EmbeddedPostgreSQLDataSource();
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(50))");
+        }
+        return source;
+    }
+
+    /**
+     * Count items.
+     * @param source Data source
+     * @return Number of items
+     * @throws SQLException If fails
+     */
+    private static int count(final DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration test cases for {@link ServerStorage}.
+ * <p>It starts a server in a process of its own, on a free port.
+ * @since 0.2
+ */
+final class ServerStorageITCase {
+
+    @Test
+    void sharesDatabaseThroughServer() throws IOException, SQLException {
+        final String name = new RandomDatabaseName().value();
+        final Storage storage = new ServerStorage(
+            new InMemoryStorage(), ServerStorageITCase.port()
+        );
+        try (EmbeddedPostgreSQLDataSource source = new EmbeddedPostgreSQLDataSource(name, storage)) {
+            try (
+                Connection connection = source.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE item (id INT)");
+                s.execute("INSERT INTO item VALUES (1)");
+            }
+            try (
+                Connection connection = DriverManager.getConnection(storage.url(name));
+                Statement s = connection.createStatement();
+                ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")
+            ) {
+                rs.next();
+                MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(1));
+            }
+        }
+    }
+
+    @Test
+    void refusesUnknownDatabase() throws IOException, SQLException {
+        final int port = ServerStorageITCase.port();
+        final Storage storage = new ServerStorage(new InMemoryStorage(), port);
+        try (EmbeddedH2DataSource source = new EmbeddedH2DataSource(storage)) {
+            source.getConnection().close();
+            Assertions.assertThrows(
+                SQLException.class,
+                () -> DriverManager.getConnection(
+                    String.format("jdbc:h2:tcp://localhost:%d/mem:intruder", port),
+                    "sa", ""
+                )
+            );
+            Assertions.assertThrows(
+                SQLException.class,
+                () -> DriverManager.getConnection(storage.url("intruder"))
+            );
+        }
+    }
+
+    @Test
+    void tunesDatabaseThroughServer() throws IOException, SQLException {
+        MatcherAssert.assertThat(
+            StorageSettings.value(
+                new FastStorage(
+                    new ServerStorage(new InMemoryStorage(), ServerStorageITCase.port())
+                ),
+                "WRITE_DELAY"
+            ),
+            Matchers.equalTo("60000")
+        );
+    }
+
+    @Test
+    void resetsDatabaseThroughServer() throws IOException, SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource(
+                new ServerStorage(new InMemoryStorage(), ServerStorageITCase.port())
+            );
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE item (id INT)");
+            for (int round = 0; round < 2; ++round) {
+                s.execute("INSERT INTO item VALUES (1)");
+                source.reset();
+                try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM item")) {
+                    rs.next();
+                    MatcherAssert.assertThat(rs.getInt(1), Matchers.equalTo(0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Free port.
+     * @return Port
+     * @throws IOException If fails
+     */
+    private static int port() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link Snapshot}.
+ * @since 0.2
+ */
+final class SnapshotTest {
+
+    @Test
+    void restoresGoldenDatabaseIntoIndependentDatabases() throws SQLException {
+        final DataSource golden = new EmbeddedPostgreSQLDataSource();
+        try (
+            Connection connection = golden.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE account (id BIGSERIAL PRIMARY KEY, name VARCHAR(25))");
+            s.execute("INSERT INTO account (name) VALUES ('cash')");
+        }
+        final Snapshot snapshot = new Snapshot(golden);
+        final DataSource first = new RestoredDataSource(
+            snapshot, new EmbeddedPostgreSQLDataSource()
+        );
+        final DataSource second = new RestoredDataSource(
+            snapshot, new EmbeddedPostgreSQLDataSource()
+        );
+        try (
+            Connection connection = first.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("INSERT INTO account (name) VALUES ('bank')");
+        }
+        MatcherAssert.assertThat(
+            SnapshotTest.count(first),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            SnapshotTest.count(second),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * Count accounts.
+     * @param source Data source
+     * @return Number of accounts
+     * @throws SQLException If fails
+     */
+    private static int count(final DataSource source) throws SQLException {
+        try (
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM account")
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link Truncation}.
+ * @since 0.2
+ */
+final class TruncationTest {
+
+    @Test
+    void truncatesOnlyTouchedTables() throws SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource();
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE TABLE book (id INT)");
+            s.execute("CREATE TABLE author (id INT)");
+            s.execute("CREATE TABLE shelf (id INT)");
+            MatcherAssert.assertThat(
+                new Truncation(connection).run(),
+                Matchers.equalTo(3)
+            );
+            s.execute("INSERT INTO book VALUES (1)");
+            MatcherAssert.assertThat(
+                new Truncation(connection).run(),
+                Matchers.equalTo(1)
+            );
+            MatcherAssert.assertThat(
+                new Truncation(connection).run(),
+                Matchers.equalTo(0)
+            );
+        }
+    }
+
+    @Test
+    void restartsSequences() throws SQLException {
+        try (
+            EmbeddedH2DataSource source = new EmbeddedH2DataSource();
+            Connection connection = source.getConnection();
+            Statement s = connection.createStatement()
+        ) {
+            s.execute("CREATE SEQUENCE ticket START WITH 10");
+            s.execute("SELECT NEXT VALUE FOR ticket");
+            new Truncation(connection).run();
+            try (ResultSet rs = s.executeQuery("SELECT NEXT VALUE FOR ticket")) {
+                rs.next();
+                MatcherAssert.assertThat(rs.getLong(1), Matchers.equalTo(10L));
+            }
+        }
+    }
+}
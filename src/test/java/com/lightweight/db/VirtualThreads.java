@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads, looked up by reflection.
+ * <p>Tests are compiled for JDK 8, so virtual threads and the events of
+ * pinned carrier threads are reached by reflection, when the running JDK
+ * has them.
+ * @since 0.2
+ */
+final class VirtualThreads {
+
+    /**
+     * Event of a virtual thread parked while pinning its carrier.
+     */
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    /**
+     * Ctor.
+     */
+    private VirtualThreads() {
+        // Utility class
+    }
+
+    /**
+     * If the running JDK has virtual threads.
+     * @return True if it has
+     */
+    static boolean available() {
+        return VirtualThreads.factory() != null;
+    }
+
+    /**
+     * Executor starting a virtual thread per task.
+     * @return Executor
+     * @throws Exception If fails
+     */
+    static ExecutorService executor() throws Exception {
+        return (ExecutorService) VirtualThreads.factory().invoke(null);
+    }
+
+    /**
+     * Count carrier threads pinned while running an action.
+     * <p>Every pin is recorded, however short: the default threshold of
+     * the event would hide pins shorter than 20 ms.
+     * @param action Action
+     * @return Number of pinned events
+     * @throws Exception If fails
+     */
+    static int pinned(final Callable<?> action) throws Exception {
+        final Class<?> type = Class.forName("jdk.jfr.Recording");
+        final Object recording = type.getConstructor().newInstance();
+        final Path file = Files.createTempFile("lightweight-db", ".jfr");
+        try {
+            Class.forName("jdk.jfr.EventSettings")
+                .getMethod("withThreshold", Duration.class)
+                .invoke(
+                    type.getMethod("enable", String.class).invoke(
+                        recording, VirtualThreads.PINNED
+                    ),
+                    Duration.ZERO
+                );
+            type.getMethod("start").invoke(recording);
+            try {
+                action.call();
+            } finally {
+                type.getMethod("stop").invoke(recording);
+            }
+            type.getMethod("dump", Path.class).invoke(recording, file);
+            return ((List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                .getMethod("readAllEvents", Path.class)
+                .invoke(null, file)).size();
+        } finally {
+            type.getMethod("close").invoke(recording);
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Factory of the executor.
+     * @return Method or null if the JDK has no virtual threads
+     */
+    private static Method factory() {
+        Method method;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException ex) {
+            method = null;
+        }
+        return method;
+    }
+}
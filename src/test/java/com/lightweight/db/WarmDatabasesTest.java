@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020-2021 baudoliver7.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.lightweight.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link WarmDatabases}.
+ * @since 0.2
+ */
+final class WarmDatabasesTest {
+
+    @Test
+    void handsOutNewDatabaseAfterRelease() throws SQLException {
+        try (WarmDatabases databases = new WarmDatabases(EmbeddedH2DataSource::new, 1)) {
+            final DataSource first = databases.acquire();
+            try (
+                Connection connection = first.getConnection();
+                Statement s = connection.createStatement()
+            ) {
+                s.execute("CREATE TABLE item (id INT)");
+            }
+            databases.release(first);
+            final DataSource second = databases.acquire();
+            try (
+                Connection connection = second.getConnection();
+                ResultSet rs = connection.getMetaData().getTables(
+                    null, "PUBLIC", "ITEM", null
+                )
+            ) {
+                MatcherAssert.assertThat(
+                    rs.next(),
+                    Matchers.is(false)
+                );
+            }
+            Assertions.assertThrows(SQLException.class, first::getConnection);
+        }
+    }
+
+    @Test
+    void closesDatabasesNotAcquired() {
+        final List<EmbeddedH2DataSource> created = new CopyOnWriteArrayList<>();
+        new WarmDatabases(
+            () -> {
+                final EmbeddedH2DataSource source = new EmbeddedH2DataSource();
+                created.add(source);
+                return source;
+            },
+            2
+        ).close();
+        MatcherAssert.assertThat(created, Matchers.hasSize(2));
+        for (final EmbeddedH2DataSource source : created) {
+            Assertions.assertThrows(SQLException.class, source::getConnection);
+        }
+    }
+
+    @Test
+    void preparesDatabasesInPlaceOfAcquiredOnes() throws Exception {
+        final List<EmbeddedH2DataSource> created = new CopyOnWriteArrayList<>();
+        try (
+            WarmDatabases databases = new WarmDatabases(
+                () -> {
+                    final EmbeddedH2DataSource source = new EmbeddedH2DataSource();
+                    created.add(source);
+                    return source;
+                },
+                2
+            )
+        ) {
+            databases.acquire();
+            databases.acquire();
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+            while (created.size() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(10L);
+            }
+            MatcherAssert.assertThat(created, Matchers.hasSize(4));
+            MatcherAssert.assertThat(
+                created.indexOf(databases.acquire()),
+                Matchers.lessThan(4)
+            );
+        }
+    }
+}